@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores a field under the given attribute name instead of the field's name.
+ *
+ * <p>Attribute names count towards the size of every item and of every read and write, so short names on wide
+ * items save both storage and capacity. The generated serializer, views, updates and projection expressions all
+ * use the stored name; the Java name is unaffected. Two fields of a type cannot be stored under the same name,
+ * which fails the compilation. Renaming a field that is already stored makes its existing values unreadable, so
+ * items must be rewritten. The annotation can be placed on the field, its getter or record component, or on a
+ * method with the field's name in the {@link Serialize} provider interface:
+ * </p>
+ *
+ * <pre>
+ * {@literal @}Serialize(Order.class)
+ * public interface OrderSerializerProvider {
+ *     {@literal @}AttributeName("ci")
+ *     String customerIdentifier();
+ * }
+ * </pre>
+ *
+ * @see Serialize
+ * @author Mina Rofaeil
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface AttributeName {
+    /**
+     * The name of the attribute; it must not be empty or contain quotes, backslashes or control characters.
+     */
+    String value();
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores a {@code String} or {@code byte[]} field as a binary ({@code B}) attribute compressed with deflate.
+ *
+ * <p>Large text and documents often shrink several times, which reduces the item size and with it the read and
+ * write capacity the item consumes. Values shorter than {@link #threshold()} bytes, and values that do not shrink,
+ * are stored uncompressed; a header byte tells the two forms apart, so the threshold can be changed at any time.
+ * Adding the annotation to a field that is already stored does change its attribute type, so existing items must
+ * be rewritten. The annotation can be placed on the field, its getter or record component, or on a method with
+ * the field's name in the {@link Serialize} provider interface:
+ * </p>
+ *
+ * <pre>
+ * {@literal @}Serialize(Document.class)
+ * public interface DocumentSerializerProvider {
+ *     {@literal @}Compressed(threshold = 512)
+ *     String body();
+ * }
+ * </pre>
+ *
+ * @see Serialize
+ * @author Mina Rofaeil
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface Compressed {
+    /**
+     * The size in bytes from which values are compressed.
+     */
+    int threshold() default 1024;
+}
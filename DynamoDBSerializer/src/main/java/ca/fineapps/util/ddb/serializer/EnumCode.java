@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores an enum by a stable numeric code instead of its name.
+ *
+ * <p>Once any constant of an enum declares a code, every constant must declare a distinct one. Fields of the
+ * enum are then stored as numbers ({@code N}), and arrays and collections of it as number sets ({@code NS}).
+ * Codes are shorter than most names and let constants be renamed without changing stored items. The
+ * annotation is kept in the class file, so an enum from another module or library is stored by its codes too:
+ * </p>
+ *
+ * <pre>
+ * public enum Status {
+ *     {@literal @}EnumCode(1) ACTIVE,
+ *     {@literal @}EnumCode(2) SUSPENDED,
+ *     {@literal @}EnumCode(3) CLOSED
+ * }
+ * </pre>
+ *
+ * @see EnumFallback
+ * @author Mina Rofaeil
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.CLASS)
+public @interface EnumCode {
+    /**
+     * The code of the constant, unique within its enum.
+     */
+    int value();
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the value of an enum field, or of the elements of an enum array or collection, for stored names or codes
+ * that have no constant, such as those written by a newer version of the enum.
+ *
+ * <p>Without this annotation, unknown values fail the deserialization with an
+ * {@link IllegalArgumentException}. The annotation can be placed on the field, its getter or record component,
+ * or on a method with the field's name in the {@link Serialize} provider interface:
+ * </p>
+ *
+ * <pre>
+ * {@literal @}Serialize(Order.class)
+ * public interface OrderSerializerProvider {
+ *     {@literal @}EnumFallback("UNKNOWN")
+ *     Status status();
+ * }
+ * </pre>
+ *
+ * @see EnumCode
+ * @author Mina Rofaeil
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface EnumFallback {
+    /**
+     * The name of the constant that replaces unknown values, or an empty string for {@code null}.
+     */
+    String value() default "";
+}
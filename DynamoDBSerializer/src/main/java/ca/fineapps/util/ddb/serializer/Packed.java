@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores a primitive array field ({@code int[]}, {@code long[]}, {@code double[]}, {@code float[]} or
+ * {@code short[]}) as a single binary ({@code B}) attribute instead of a number set.
+ *
+ * <p>Unlike a number set, the packed form keeps duplicates and element order, and it avoids formatting and
+ * parsing one decimal string per element. The annotation can be placed on the field, its getter or record
+ * component, or on a method with the field's name in the {@link Serialize} provider interface:
+ * </p>
+ *
+ * <pre>
+ * {@literal @}Serialize(Samples.class)
+ * public interface SamplesSerializerProvider {
+ *     {@literal @}Packed
+ *     double[] values();
+ * }
+ * </pre>
+ *
+ * @see Serialize
+ * @author Mina Rofaeil
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface Packed {
+    Encoding value() default Encoding.FIXED_WIDTH;
+
+    enum Encoding {
+        /**
+         * Each element is written in its natural width in little-endian byte order.
+         */
+        FIXED_WIDTH,
+
+        /**
+         * The first element followed by the difference to each previous element, zigzag and varint encoded.
+         * Only applies to {@code int[]} and {@code long[]}, and is most compact for sorted values such as
+         * timestamps.
+         */
+        DELTA_VARINT
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Converts the elements of a list field whose elements are themselves serialized objects ({@code L} of
+ * {@code M}) on the common {@link java.util.concurrent.ForkJoinPool} once the list holds at least
+ * {@link #threshold()} elements.
+ *
+ * <p>This only pays off for items that embed thousands of nested objects; smaller lists are converted on the
+ * calling thread as usual. Element order is kept. The annotation can be placed on the field, its getter or
+ * record component, or on a method with the field's name in the {@link Serialize} provider interface:
+ * </p>
+ *
+ * <pre>
+ * {@literal @}Serialize(Route.class)
+ * public interface RouteSerializerProvider {
+ *     {@literal @}Parallel
+ *     List&lt;Waypoint&gt; waypoints();
+ * }
+ * </pre>
+ *
+ * @see Serialize
+ * @author Mina Rofaeil
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.SOURCE)
+public @interface Parallel {
+    /**
+     * The number of elements from which the list is converted in parallel.
+     */
+    int threshold() default 1024;
+}
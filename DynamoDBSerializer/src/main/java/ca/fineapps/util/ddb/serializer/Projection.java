@@ -0,0 +1,59 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotate an interface with {@link Projection} to declare a subset of the attributes of a
+ * serialized type. Each abstract method names one field of the target type, either by the
+ * field's name or by its getter:
+ *
+ * <pre>
+ * {@literal @}Projection(Order.class)
+ * public interface OrderSummary {
+ *     String id();
+ *     int getTotal();
+ * }
+ * </pre>
+ *
+ * <p>For an interface named {@code OrderSummary}, a record {@code OrderSummaryProjection} implementing
+ * it is generated in the package of the target type. The record provides the
+ * {@code PROJECTION_EXPRESSION} and {@code EXPRESSION_ATTRIBUTE_NAMES} to pass to a query, and a static
+ * {@code deserialize} method that only decodes the projected attributes:
+ * </p>
+ *
+ * <pre>
+ * QueryRequest request = QueryRequest.builder()
+ *         .projectionExpression(OrderSummaryProjection.PROJECTION_EXPRESSION)
+ *         .expressionAttributeNames(OrderSummaryProjection.EXPRESSION_ATTRIBUTE_NAMES)
+ *         ...
+ * OrderSummary summary = OrderSummaryProjection.deserialize(item);
+ * </pre>
+ *
+ * <p>The projected fields are mapped exactly as the {@link Serializer} of the target type maps them.
+ * </p>
+ *
+ * @see Serialize
+ * @author Mina Rofaeil
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface Projection {
+    Class<?> value();
+}
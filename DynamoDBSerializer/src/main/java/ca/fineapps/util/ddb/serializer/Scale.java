@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores a {@code double} or {@code float} field rounded to a fixed number of fraction digits.
+ *
+ * <p>The number is formatted from a scaled {@code long} rather than through the shortest-representation
+ * algorithm of {@link Double#toString(double)}, which is cheaper and suits values with a known precision such
+ * as prices or measurements. Trailing zeros are dropped, and values too large to scale exactly are stored in
+ * full. The annotation can be placed on the field, its getter or record component, or on a method with the
+ * field's name in the {@link Serialize} provider interface:
+ * </p>
+ *
+ * <pre>
+ * {@literal @}Serialize(Reading.class)
+ * public interface ReadingSerializerProvider {
+ *     {@literal @}Scale(3)
+ *     double temperature();
+ * }
+ * </pre>
+ *
+ * @see Serialize
+ * @author Mina Rofaeil
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface Scale {
+    /**
+     * The number of fraction digits, from 0 to 15.
+     */
+    int value();
+}
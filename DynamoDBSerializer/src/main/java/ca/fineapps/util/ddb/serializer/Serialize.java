@@ -54,4 +54,16 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.SOURCE)
 public @interface Serialize {
     Class<?> value() default void.class;
+
+    /**
+     * When {@code true}, {@code serialize} returns a compact immutable map instead of a {@link java.util.HashMap}.
+     * Use it when callers only hand the map to the DynamoDB client and never modify it.
+     */
+    boolean immutable() default false;
+
+    /**
+     * When {@code true}, a read-only {@code MyDataTypeView} is also generated. It wraps the attribute map and
+     * decodes each field on first access, so that items can be filtered without deserializing them fully.
+     */
+    boolean view() default false;
 }
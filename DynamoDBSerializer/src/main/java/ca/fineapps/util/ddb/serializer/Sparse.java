@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Omits default values from the item: primitives that are zero or {@code false}, and strings, arrays and
+ * collections that are empty are not written, and missing attributes are read back as those defaults.
+ *
+ * <p>Wide items whose fields are mostly unset shrink accordingly, and so do the read and write capacity they
+ * consume. Empty sets, which DynamoDB rejects, are omitted rather than sent. A sparse field does not tell
+ * {@code null} and empty apart: both are omitted and read back as empty. Other fields, such as nested objects,
+ * enums and boxed numbers, are unaffected and only omitted when {@code null}.
+ * </p>
+ *
+ * <p>Placed on the serialized type or on the {@link Serialize} provider interface, it applies to every field;
+ * placed on a field, its getter or record component, or on a method with the field's name in the provider
+ * interface, it applies to that field, and {@code @Sparse(false)} excludes a field from a sparse type:
+ * </p>
+ *
+ * <pre>
+ * {@literal @}Sparse
+ * {@literal @}Serialize(Profile.class)
+ * public interface ProfileSerializerProvider {
+ *     {@literal @}Sparse(false)
+ *     int version();
+ * }
+ * </pre>
+ *
+ * @see Serialize
+ * @author Mina Rofaeil
+ */
+@Target({ElementType.TYPE, ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface Sparse {
+    /**
+     * Whether default values are omitted.
+     */
+    boolean value() default true;
+}
@@ -15,8 +15,10 @@
 package ca.fineapps.util.ddb.serializer;
 
 import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
@@ -32,22 +34,50 @@ import java.io.InputStream;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-@SupportedAnnotationTypes("ca.fineapps.util.ddb.serializer.Serialize")
+@SupportedAnnotationTypes({
+        "ca.fineapps.util.ddb.serializer.Serialize",
+        "ca.fineapps.util.ddb.serializer.Projection"
+})
+@SupportedOptions(RegistryGenerator.OPTION)
 @SupportedSourceVersion(SourceVersion.RELEASE_21)
 public class DynamoDBSerializerProcessor extends AbstractProcessor {
+    private final Map<EquatableTypeMirror, List<FieldSerializer.Field>> fieldsByType = new HashMap<>();
+    private RegistryGenerator registry;
+    private boolean supportFilesGenerated;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        registry = new RegistryGenerator(processingEnv.getTypeUtils(), processingEnv.getElementUtils());
+    }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
         Types typeUtils = processingEnv.getTypeUtils();
+        fieldsByType.clear();
+        if (roundEnv.processingOver()) {
+            if (!registry.isEmpty()) {
+                generateRegistry();
+            }
+            return false;
+        }
+
         Set<EquatableTypeMirror> typesToSerialize = new HashSet<>();
+        Map<EquatableTypeMirror, Element> annotatedElements = new HashMap<>();
 
         for (TypeElement annotation : annotations) {
+            if (!annotation.getQualifiedName().contentEquals(Serialize.class.getCanonicalName())) {
+                continue;
+            }
+
             Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(annotation);
             for (Element element : elements) {
                 if (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD) {
@@ -58,7 +88,9 @@ public class DynamoDBSerializerProcessor extends AbstractProcessor {
                                     "When @Serializer is used on a class type, it generates a serializer " +
                                             "for the annotated type. A target type cannot be specified");
                         } else {
-                            typesToSerialize.add(new EquatableTypeMirror(typeUtils, element.asType()));
+                            EquatableTypeMirror type = new EquatableTypeMirror(typeUtils, element.asType());
+                            typesToSerialize.add(type);
+                            annotatedElements.put(type, element);
                         }
                     } catch (MirroredTypeException ex) {
                         TypeMirror typeMirror = ex.getTypeMirror();
@@ -67,7 +99,9 @@ public class DynamoDBSerializerProcessor extends AbstractProcessor {
                                     "When @Serializer is used on a class type, it generates a serializer " +
                                             "for the annotated type. A target type cannot be specified");
                         } else {
-                            typesToSerialize.add(new EquatableTypeMirror(typeUtils, element.asType()));
+                            EquatableTypeMirror type = new EquatableTypeMirror(typeUtils, element.asType());
+                            typesToSerialize.add(type);
+                            annotatedElements.put(type, element);
                         }
                     }
                 } else if (element.getKind() == ElementKind.INTERFACE) {
@@ -85,7 +119,9 @@ public class DynamoDBSerializerProcessor extends AbstractProcessor {
                             processingEnv.getMessager().printError(
                                     "When @Serializer is used on an interface type, a target type must be specified");
                         } else {
-                            typesToSerialize.add(new EquatableTypeMirror(typeUtils, typeMirror));
+                            EquatableTypeMirror type = new EquatableTypeMirror(typeUtils, typeMirror);
+                            typesToSerialize.add(type);
+                            annotatedElements.put(type, element);
                         }
                     }
                 } else {
@@ -95,18 +131,55 @@ public class DynamoDBSerializerProcessor extends AbstractProcessor {
             }
         }
 
+        // Projection targets are serialized too, so that their support files and nested serializers exist.
+        Map<TypeElement, TypeMirror> projections = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(Projection.class)) {
+            TypeMirror target;
+            try {
+                target = processingEnv.getElementUtils()
+                        .getTypeElement(element.getAnnotation(Projection.class).value().getCanonicalName()).asType();
+            } catch (MirroredTypeException ex) {
+                target = ex.getTypeMirror();
+            }
+
+            projections.put((TypeElement) element, target);
+            typesToSerialize.add(new EquatableTypeMirror(typeUtils, target));
+        }
+
         List<TypeMirror> typesToSerializeList = new ArrayList<>(
                 typesToSerialize.stream().map(EquatableTypeMirror::getType).toList()
         );
 
-        if (!typesToSerializeList.isEmpty()) {
-            Map.of(
-                    "ca.fineapps.util.ddb.serializer.ArrayCollector", "/source/java/ArrayCollector.java",
-                    "ca.fineapps.util.ddb.serializer.Collectors", "/source/java/Collectors.java",
-                    "ca.fineapps.util.ddb.serializer.Serializer", "/source/java/Serializer.java"
+        if (!typesToSerializeList.isEmpty() && !supportFilesGenerated) {
+            supportFilesGenerated = true;
+            Map.ofEntries(
+                    Map.entry("ca.fineapps.util.ddb.serializer.AsyncAdapters", "/source/java/AsyncAdapters.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.BulkConverter", "/source/java/BulkConverter.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.BulkWriter", "/source/java/BulkWriter.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.ChunkedItems", "/source/java/ChunkedItems.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.Compression", "/source/java/Compression.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.Converters", "/source/java/Converters.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.DynamoDBJson", "/source/java/DynamoDBJson.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.ItemSizes", "/source/java/ItemSizes.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.ItemUpdate", "/source/java/ItemUpdate.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.Numbers", "/source/java/Numbers.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.PackedArrays", "/source/java/PackedArrays.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.ParallelScan", "/source/java/ParallelScan.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.PrefetchingQuery", "/source/java/PrefetchingQuery.java"),
+                    Map.entry("ca.fineapps.util.ddb.serializer.Serializer", "/source/java/Serializer.java")
             ).forEach(this::copySourceFile);
         }
 
+        projections.forEach((projection, target) -> {
+            Element annotatedElement = annotatedElements.get(new EquatableTypeMirror(typeUtils, target));
+            addDependencies(generateProjection(projection, target, annotatedElement), typesToSerialize,
+                    typesToSerializeList);
+        });
+
+        // Atomic update builders are only generated for annotated types, which are the ones stored as items.
+        annotatedElements.forEach((type, element) -> addDependencies(generateUpdates(type.getType(), element),
+                typesToSerialize, typesToSerializeList));
+
         for (int i = 0; i < typesToSerializeList.size(); i++) {
             TypeMirror typeMirror = typesToSerializeList.get(i);
 
@@ -115,28 +188,163 @@ public class DynamoDBSerializerProcessor extends AbstractProcessor {
 
                 SerializerGenerator generator = new SerializerGenerator(
                         typeUtils,
-                        processingEnv.getElementUtils()
+                        processingEnv.getElementUtils(),
+                        processingEnv.getMessager()
                 );
 
                 try (Writer writer = generatedSourceFile.openWriter()) {
-                    Collection<TypeMirror> dependencies = generator.generateSerializer(typeMirror, writer);
+                    Element annotatedElement = annotatedElements.get(new EquatableTypeMirror(typeUtils, typeMirror));
+                    Collection<TypeMirror> dependencies = generator.generateSerializer(typeMirror, annotatedElement,
+                            findFields(typeMirror, annotatedElement), writer);
 
-                    for (TypeMirror dependency : dependencies) {
-                        EquatableTypeMirror equatableDependency = new EquatableTypeMirror(typeUtils, dependency);
-                        if (!typesToSerialize.contains(equatableDependency)) {
-                            typesToSerialize.add(equatableDependency);
-                            typesToSerializeList.add(dependency);
-                        }
-                    }
+                    addDependencies(dependencies, typesToSerialize, typesToSerializeList);
                 }
             } catch (IOException ex) {
                 processingEnv.getMessager().printError("Failed to generate source file for " + typeMirror);
             }
         }
 
+        // Views of nested objects are generated for every view that exposes them, whether or not those types enable
+        // views themselves.
+        Set<EquatableTypeMirror> viewTypes = new HashSet<>();
+        List<TypeMirror> viewTypesList = new ArrayList<>();
+        annotatedElements.forEach((type, element) -> {
+            Serialize options = element.getAnnotation(Serialize.class);
+            if (options != null && options.view() && viewTypes.add(type)) {
+                viewTypesList.add(type.getType());
+            }
+        });
+
+        for (int i = 0; i < viewTypesList.size(); i++) {
+            TypeMirror typeMirror = viewTypesList.get(i);
+            Element annotatedElement = annotatedElements.get(new EquatableTypeMirror(typeUtils, typeMirror));
+
+            for (TypeMirror nestedType : generateView(typeMirror, annotatedElement)) {
+                if (viewTypes.add(new EquatableTypeMirror(typeUtils, nestedType))) {
+                    viewTypesList.add(nestedType);
+                }
+            }
+        }
+
+        // The registry is generated in the final round, so that it also covers types first seen in later rounds and
+        // the nested types discovered while generating their serializers.
+        annotatedElements.keySet().forEach(type -> registry.addAnnotatedType(type.getType()));
+        projections.values().forEach(registry::addAnnotatedType);
+        typesToSerializeList.forEach(registry::addType);
+
         return false;
     }
 
+    private void addDependencies(Collection<TypeMirror> dependencies, Set<EquatableTypeMirror> typesToSerialize,
+            List<TypeMirror> typesToSerializeList) {
+        for (TypeMirror dependency : dependencies) {
+            EquatableTypeMirror equatableDependency = new EquatableTypeMirror(processingEnv.getTypeUtils(), dependency);
+            if (!typesToSerialize.contains(equatableDependency)) {
+                typesToSerialize.add(equatableDependency);
+                typesToSerializeList.add(dependency);
+            }
+        }
+    }
+
+    private Collection<TypeMirror> generateUpdates(TypeMirror type, Element annotatedElement) {
+        UpdatesGenerator generator = new UpdatesGenerator(
+                processingEnv.getTypeUtils(),
+                processingEnv.getElementUtils(),
+                processingEnv.getMessager()
+        );
+        FieldAnnotations annotations = new FieldAnnotations(
+                (TypeElement) processingEnv.getTypeUtils().asElement(type), annotatedElement);
+
+        String className = generator.updatesClassName(type);
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(className);
+            try (Writer writer = sourceFile.openWriter()) {
+                return generator.generateUpdates(type, findFields(type, annotatedElement), annotations, writer);
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printError("Failed to generate source file for " + className);
+            return List.of();
+        }
+    }
+
+    private Collection<TypeMirror> generateView(TypeMirror type, Element annotatedElement) {
+        ViewGenerator generator = new ViewGenerator(processingEnv.getTypeUtils(), processingEnv.getElementUtils());
+        FieldAnnotations annotations = new FieldAnnotations(
+                (TypeElement) processingEnv.getTypeUtils().asElement(type), annotatedElement);
+
+        String className = generator.viewClassName(type);
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(className);
+            try (Writer writer = sourceFile.openWriter()) {
+                return generator.generateView(type, findFields(type, annotatedElement), annotations, writer);
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printError("Failed to generate source file for " + className);
+            return List.of();
+        }
+    }
+
+    private Collection<TypeMirror> generateProjection(TypeElement projection, TypeMirror target,
+            Element annotatedElement) {
+        ProjectionGenerator generator = new ProjectionGenerator(
+                processingEnv.getTypeUtils(),
+                processingEnv.getElementUtils(),
+                processingEnv.getMessager()
+        );
+        FieldAnnotations annotations = new FieldAnnotations(
+                (TypeElement) processingEnv.getTypeUtils().asElement(target), annotatedElement);
+
+        List<ProjectionGenerator.Component> components = generator.findComponents(projection, target,
+                findFields(target, annotatedElement));
+        if (components == null) {
+            return List.of();
+        }
+
+        String className = generator.projectionClassName(projection, target);
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(className, projection);
+            try (Writer writer = sourceFile.openWriter()) {
+                return generator.generateProjection(projection, target, components, annotations, writer);
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printError("Failed to generate source file for " + className);
+            return List.of();
+        }
+    }
+
+    // Fields are validated as they are found, so each type is resolved once per round and its errors are reported
+    // once, however many of its serializer, view, updates and projections are generated.
+    private List<FieldSerializer.Field> findFields(TypeMirror type, Element annotatedElement) {
+        Types typeUtils = processingEnv.getTypeUtils();
+        return fieldsByType.computeIfAbsent(new EquatableTypeMirror(typeUtils, type), key -> {
+            FieldAnnotations annotations = new FieldAnnotations((TypeElement) typeUtils.asElement(type),
+                    annotatedElement);
+            return new FieldSerializer(typeUtils, processingEnv.getElementUtils(), processingEnv.getMessager(),
+                    new NameUtils(typeUtils), annotations).findFields(type);
+        });
+    }
+
+    private void generateRegistry() {
+        String className = registry.className(processingEnv.getOptions().get(RegistryGenerator.OPTION));
+        if (className == null) {
+            // Modules that do not use the registry still build; the warning explains why it is missing to those
+            // that do.
+            processingEnv.getMessager().printWarning("The serialized types share no package to generate the " +
+                    RegistryGenerator.SIMPLE_NAME + " registry in; name it with -A" + RegistryGenerator.OPTION +
+                    "=<fully qualified class name>");
+            return;
+        }
+
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(className);
+            try (Writer writer = sourceFile.openWriter()) {
+                registry.generateRegistry(className, writer);
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printError("Failed to generate source file for " + className);
+        }
+    }
+
     private JavaFileObject generateSourceFile(TypeMirror typeMirror) throws IOException {
         Types typeUtils = processingEnv.getTypeUtils();
         TypeElement type = ((TypeElement) typeUtils.asElement(typeMirror));
@@ -25,6 +25,8 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -39,13 +41,22 @@ class DynamoDBTypeMapper {
         this.customMappings = buildCustomMappings();
     }
 
+    AttributeValue.Type findDynamoDBType(TypeMirror type, FieldAnnotations annotations, String fieldName) {
+        if (annotations.find(fieldName, Packed.class) != null ||
+                annotations.find(fieldName, Compressed.class) != null) {
+            return AttributeValue.Type.B;
+        }
+
+        return findDynamoDBType(type);
+    }
+
     AttributeValue.Type findDynamoDBType(TypeMirror type) {
         if (isNumber(type)) {
             return AttributeValue.Type.N;
         }
 
         if (isEnum(type)) {
-            return AttributeValue.Type.S;
+            return isCodedEnum(type) ? AttributeValue.Type.N : AttributeValue.Type.S;
         }
 
         String typeName = type.toString();
@@ -66,7 +77,7 @@ class DynamoDBTypeMapper {
         if (isArrayOrCollection(type)) {
             TypeMirror entityType = findArrayOrCollectionType(type);
 
-            if (isNumber(entityType)) {
+            if (isNumber(entityType) || isCodedEnum(entityType)) {
                 return AttributeValue.Type.NS;
             } else if (isString(entityType) || isEnum(entityType)) {
                 return AttributeValue.Type.SS;
@@ -80,6 +91,22 @@ class DynamoDBTypeMapper {
         return customMappings.getOrDefault(typeName, AttributeValue.Type.M);
     }
 
+    boolean isPackable(TypeMirror type, Packed.Encoding encoding) {
+        if (!isArray(type)) {
+            return false;
+        }
+
+        Set<String> packableTypes = encoding == Packed.Encoding.DELTA_VARINT ?
+                Set.of("int", "long") :
+                Set.of("int", "long", "double", "float", "short");
+        return packableTypes.contains(findArrayOrCollectionType(type).toString());
+    }
+
+    boolean isObjectList(TypeMirror type) {
+        return isArrayOrCollection(type) && !isSet(type) &&
+                findDynamoDBType(findArrayOrCollectionType(type)) == AttributeValue.Type.M;
+    }
+
     boolean isArrayOrCollection(TypeMirror type) {
         return isArray(type) || isCollection(type);
     }
@@ -131,6 +158,29 @@ class DynamoDBTypeMapper {
         );
     }
 
+    // Numbers the generated code can read back, as opposed to other subtypes of Number, such as LongAdder. Atomic
+    // numbers are mutable, so they are only supported as fields, not as elements of arrays and collections.
+    boolean isConvertibleNumber(TypeMirror type, boolean element) {
+        Set<String> convertibleTypes = Set.of(
+                "java.lang.Integer",
+                "java.lang.Short",
+                "java.lang.Long",
+                "java.lang.Double",
+                "java.lang.Float",
+                "java.lang.Byte",
+                "java.math.BigDecimal",
+                "java.math.BigInteger"
+        );
+        Set<String> atomicTypes = Set.of(
+                "java.util.concurrent.atomic.AtomicInteger",
+                "java.util.concurrent.atomic.AtomicLong"
+        );
+
+        String typeName = type.toString();
+        return type.getKind().isPrimitive() || convertibleTypes.contains(typeName) ||
+                !element && atomicTypes.contains(typeName);
+    }
+
     boolean isString(TypeMirror type) {
         return typeUtils.isSubtype(
                 typeUtils.erasure(type),
@@ -157,6 +207,45 @@ class DynamoDBTypeMapper {
         return element != null && element.getKind() == ElementKind.ENUM;
     }
 
+    boolean isCodedEnum(TypeMirror type) {
+        return isEnum(type) && !enumCodes(type).isEmpty();
+    }
+
+    // The enum of a field, or of the elements of an array or collection field, or null if there is none.
+    TypeMirror findEnumType(TypeMirror type) {
+        if (isEnum(type)) {
+            return type;
+        } else if (isArrayOrCollection(type) && isEnum(findArrayOrCollectionType(type))) {
+            return findArrayOrCollectionType(type);
+        }
+        return null;
+    }
+
+    List<String> enumConstants(TypeMirror type) {
+        return enumConstantElements(type).stream()
+                .map(constant -> constant.getSimpleName().toString())
+                .toList();
+    }
+
+    // The codes declared with @EnumCode by constant name, in declaration order. Constants without a code are left
+    // out, so the map is empty for enums stored by name.
+    Map<String, Integer> enumCodes(TypeMirror type) {
+        Map<String, Integer> codes = new LinkedHashMap<>();
+        for (Element constant : enumConstantElements(type)) {
+            EnumCode code = constant.getAnnotation(EnumCode.class);
+            if (code != null) {
+                codes.put(constant.getSimpleName().toString(), code.value());
+            }
+        }
+        return codes;
+    }
+
+    private List<? extends Element> enumConstantElements(TypeMirror type) {
+        return typeUtils.asElement(typeUtils.erasure(type)).getEnclosedElements().stream()
+                .filter(element -> element.getKind() == ElementKind.ENUM_CONSTANT)
+                .toList();
+    }
+
     private Map<String, AttributeValue.Type> buildCustomMappings() {
         Map<String, AttributeValue.Type> map = new HashMap<>();
 
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import java.lang.annotation.Annotation;
+
+class FieldAnnotations {
+    private final TypeElement type;
+    private final TypeElement provider;
+
+    FieldAnnotations(TypeElement type, Element annotatedElement) {
+        this.type = type;
+        this.provider = annotatedElement != null && annotatedElement.getKind() == ElementKind.INTERFACE ?
+                (TypeElement) annotatedElement : null;
+    }
+
+    <A extends Annotation> A find(String fieldName, Class<A> annotationType) {
+        // The provider interface comes first so that it can configure types that cannot be modified.
+        if (provider != null) {
+            A annotation = findOnAccessor(provider, fieldName, annotationType);
+            if (annotation != null) {
+                return annotation;
+            }
+        }
+
+        for (Element enclosedElement : type.getEnclosedElements()) {
+            if (enclosedElement.getKind() == ElementKind.FIELD &&
+                    enclosedElement.getSimpleName().toString().equals(fieldName)) {
+                A annotation = enclosedElement.getAnnotation(annotationType);
+                if (annotation != null) {
+                    return annotation;
+                }
+            }
+        }
+
+        A annotation = findOnAccessor(type, fieldName, annotationType);
+        if (annotation != null) {
+            return annotation;
+        }
+
+        // Annotations that also target types, such as Sparse, apply to every field of the type they are declared on.
+        if (provider != null && provider.getAnnotation(annotationType) != null) {
+            return provider.getAnnotation(annotationType);
+        }
+        return type.getAnnotation(annotationType);
+    }
+
+    // Invalid names are reported by FieldSerializer.findFields; the field's name stands in for them so that the
+    // generated code still parses and only that error is shown.
+    String attributeName(String fieldName) {
+        AttributeName attributeName = find(fieldName, AttributeName.class);
+        return attributeName != null && isValidAttributeName(attributeName.value()) ? attributeName.value() : fieldName;
+    }
+
+    static boolean isValidAttributeName(String name) {
+        return !name.isEmpty() && name.chars().noneMatch(c -> c == '"' || c == '\\' || c < 0x20);
+    }
+
+    boolean isSparse(String fieldName) {
+        Sparse sparse = find(fieldName, Sparse.class);
+        return sparse != null && sparse.value();
+    }
+
+    private static <A extends Annotation> A findOnAccessor(TypeElement type, String fieldName,
+            Class<A> annotationType) {
+        String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+
+        for (Element enclosedElement : type.getEnclosedElements()) {
+            if (enclosedElement.getKind() == ElementKind.METHOD) {
+                String name = enclosedElement.getSimpleName().toString();
+                if (name.equals(fieldName) || name.equals("get" + capitalized) || name.equals("is" + capitalized)) {
+                    A annotation = enclosedElement.getAnnotation(annotationType);
+                    if (annotation != null) {
+                        return annotation;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+}
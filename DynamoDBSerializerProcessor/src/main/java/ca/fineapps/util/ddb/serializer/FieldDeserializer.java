@@ -28,47 +28,100 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 class FieldDeserializer {
+    private static final String CONVERTERS = "ca.fineapps.util.ddb.serializer.Converters";
+    private static final String BULK_CONVERTER = "ca.fineapps.util.ddb.serializer.BulkConverter";
+    private static final String COMPRESSION = "ca.fineapps.util.ddb.serializer.Compression";
+    private static final String NUMBERS = "ca.fineapps.util.ddb.serializer.Numbers";
+    private static final String PACKED_ARRAYS = "ca.fineapps.util.ddb.serializer.PackedArrays";
+
     private final Types typeUtils;
     private final DynamoDBTypeMapper typeMapper;
     private final NameUtils nameUtils;
+    private final FieldAnnotations annotations;
     private final Map<String, BiFunction<TypeMirror, String, String>> customDeserializers;
 
-    FieldDeserializer(Types typeUtils, Elements elementUtils, NameUtils nameUtils) {
+    FieldDeserializer(Types typeUtils, Elements elementUtils, NameUtils nameUtils, FieldAnnotations annotations) {
         this.typeUtils = typeUtils;
         this.typeMapper = new DynamoDBTypeMapper(typeUtils, elementUtils);
         this.nameUtils = nameUtils;
+        this.annotations = annotations;
         this.customDeserializers = buildCustomDeserializers();
     }
 
     void generateFieldDeserialization(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+        generateFieldDeserialization(type, false, writer, dependencies);
+    }
+
+    void generateJsonFieldDeserialization(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies)
+            throws IOException {
+        generateFieldDeserialization(type, true, writer, dependencies);
+    }
+
+    private void generateFieldDeserialization(TypeMirror type, boolean json, Writer writer,
+            Collection<TypeMirror> dependencies) throws IOException {
         Element element = typeUtils.asElement(type);
         Constructor constructor = findConstructor(element);
 
         if (constructor != null) {
             if (constructor.isNoArgs()) {
+                List<Target> targets = findSetterTargets(type, dependencies);
                 writer.write("\t\t" + element.getSimpleName() + " object = new " + element.getSimpleName() + "();\n");
+                // Sparse fields are set to their defaults first, as the constructor may initialize them otherwise.
+                for (Target target : targets) {
+                    if (annotations.isSparse(target.name())) {
+                        String defaultValue = defaultValue(target.name(), target.type());
+                        if (!defaultValue.equals("null")) {
+                            writer.write("\t\t" + target.assign(defaultValue) + ";\n");
+                        }
+                    }
+                }
+                writer.write("\n");
+                generateAttributeLoop(targets, json, writer);
                 writer.write("\n");
-                generateFieldDeserializationWithSetters(type, writer, dependencies);
                 writer.write("\t\treturn object;\n");
             } else {
-                writer.write("\t\treturn new " + element.getSimpleName() + "(\n");
-                generateFieldDeserializationWithConstructorParameters(constructor, writer, dependencies);
-                writer.write("\t\t);\n");
+                generateConstructorDeserialization(element.getSimpleName().toString(), constructor, json, writer,
+                        dependencies);
             }
         }
     }
 
-    private void generateFieldDeserializationWithSetters(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+    // Projections are built through the canonical constructor of the generated record, which only exists once the
+    // record has been written, so its arguments are given by the projected fields.
+    void generateProjectionDeserialization(String className, List<FieldSerializer.Field> fields, Writer writer,
+            Collection<TypeMirror> dependencies) throws IOException {
+        Constructor constructor = new Constructor(fields.stream()
+                .map(field -> new Param(field.type(), field.name(), field.ddbType()))
+                .toList());
+        generateConstructorDeserialization(className, constructor, false, writer, dependencies);
+    }
+
+    private void generateConstructorDeserialization(String className, Constructor constructor, boolean json,
+            Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+        generateAttributeLoop(findConstructorTargets(constructor, writer, dependencies), json, writer);
+        writer.write("\n");
+        writer.write("\t\treturn new " + className + "(\n");
+        writer.write(constructor.args().stream()
+                .map(param -> "\t\t\t\t" + localName(param.name()))
+                .collect(Collectors.joining(",\n")) + "\n"
+        );
+        writer.write("\t\t);\n");
+    }
+
+    private List<Target> findSetterTargets(TypeMirror type, Collection<TypeMirror> dependencies) {
         Element element = typeUtils.asElement(type);
         List<? extends Element> enclosedElements = element.getEnclosedElements();
+        Map<String, Target> targets = new LinkedHashMap<>();
 
         // Find setters. Protected and package-private setters are fine because the serializer is generated in the same
         // package as the serialized type
@@ -84,151 +137,319 @@ class FieldDeserializer {
 
                 if (parameters.size() == 1) {
                     TypeMirror paramType = parameters.getFirst().asType();
-                    AttributeValue.Type ddbType = typeMapper.findDynamoDBType(paramType);
-                    if (ddbType == AttributeValue.Type.M) {
-                        dependencies.add(paramType);
-                    }
 
                     String fieldName = Character.toLowerCase(enclosedElementName.charAt(3)) +
                             (enclosedElementName.length() > 4 ? enclosedElementName.substring(4) : "");
-                    writer.write("\t\tif (map.containsKey(\"" + fieldName + "\")) {\n");
+                    AttributeValue.Type ddbType = typeMapper.findDynamoDBType(paramType, annotations, fieldName);
 
-                    String mapGetter = "map.get(\"" + fieldName + "\")." + ddbType.name().toLowerCase() + "()";
-                    mapGetter = wrapMapGetter(paramType, mapGetter);
+                    // Overloaded setters would produce duplicate case labels; the first one declared wins.
+                    if (targets.containsKey(fieldName)) {
+                        continue;
+                    }
 
-                    writer.write("\t\t\tobject." + enclosedElement.getSimpleName() + "(" +
-                            mapGetter +
-                            ");\n");
-                    writer.write("\t\t}\n");
-                    writer.write("\n");
+                    if (ddbType == AttributeValue.Type.M) {
+                        dependencies.add(paramType);
+                    }
+
+                    targets.put(fieldName, new Target(fieldName, annotations.attributeName(fieldName), paramType,
+                            ddbType, "object." + enclosedElement.getSimpleName() + "(", ")"));
                 }
             }
         }
+
+        return List.copyOf(targets.values());
     }
 
-    private void generateFieldDeserializationWithConstructorParameters(Constructor constructor, Writer writer,
+    private List<Target> findConstructorTargets(Constructor constructor, Writer writer,
             Collection<TypeMirror> dependencies) throws IOException {
-        writer.write(constructor.args().stream()
-                .peek(param -> {
-                    if (param.ddbType() == AttributeValue.Type.M) {
-                        dependencies.add(param.type());
-                    }
-                })
-                .map(this::mapConstructorArg)
-                .collect(Collectors.joining(",\n")) + "\n"
-        );
+        List<Target> targets = new ArrayList<>();
+
+        for (Param param : constructor.args()) {
+            if (param.ddbType() == AttributeValue.Type.M) {
+                dependencies.add(param.type());
+            }
+
+            writer.write("\t\t" + param.type() + " " + localName(param.name()) + " = " +
+                    defaultValue(param.name(), param.type()) + ";\n");
+            targets.add(new Target(param.name(), annotations.attributeName(param.name()), param.type(),
+                    param.ddbType(), localName(param.name()) + " = ", ""));
+        }
+
+        writer.write("\n");
+        return targets;
+    }
+
+    private void generateAttributeLoop(List<Target> targets, boolean json, Writer writer) throws IOException {
+        if (json) {
+            generateJsonAttributeLoop(targets, writer);
+        } else {
+            generateAttributeLoop(targets, writer);
+        }
     }
 
-    private String mapConstructorArg(Param param) {
-        return "\t\t\t\tmap.containsKey(\"" + param.name() + "\") ? " +
-                wrapMapGetter(param.type(),
-                        "map.get(\"" + param.name() + "\")." +
-                                param.ddbType().name().toLowerCase() + "()"
-                ) + " : " +
-                defaultValue(param);
+    // A single pass over the item's attributes dispatching on the attribute name, so each attribute costs one
+    // iteration step instead of a containsKey/get pair per field.
+    private void generateAttributeLoop(List<Target> targets, Writer writer) throws IOException {
+        writer.write("\t\tfor (Map.Entry<String, AttributeValue> entry : map.entrySet()) {\n");
+        writer.write("\t\t\tAttributeValue value = entry.getValue();\n");
+        writer.write("\t\t\tswitch (entry.getKey()) {\n");
+        for (Target target : targets) {
+            String mapGetter = attributeDecoding(target.name(), target.type(), target.ddbType(), "value");
+            writer.write("\t\t\t\tcase \"" + target.attributeName() + "\" -> " + target.assign(mapGetter) + ";\n");
+        }
+        writer.write("\t\t\t\tdefault -> {\n");
+        writer.write("\t\t\t\t}\n");
+        writer.write("\t\t\t}\n");
+        writer.write("\t\t}\n");
+    }
+
+    // The same dispatch over the members of a DynamoDB JSON item. Each value is read in the representation
+    // deserialize() expects for the field and then goes through the same conversion.
+    private void generateJsonAttributeLoop(List<Target> targets, Writer writer) throws IOException {
+        writer.write("\t\treader.beginObject();\n");
+        writer.write("\t\twhile (reader.hasNext()) {\n");
+        writer.write("\t\t\tswitch (reader.nextName()) {\n");
+        for (Target target : targets) {
+            writer.write("\t\t\t\tcase \"" + target.attributeName() + "\" -> " + jsonValueReader(target) + "\n");
+        }
+        writer.write("\t\t\t\tdefault -> reader.skipValue();\n");
+        writer.write("\t\t\t}\n");
+        writer.write("\t\t}\n");
+        writer.write("\t\treader.endObject();\n");
     }
 
-    private static String defaultValue(Param arg) {
-        TypeKind kind = arg.type().getKind();
+    private String jsonValueReader(Target target) {
+        TypeMirror type = target.type();
+        String tag = "\"" + target.ddbType().name() + "\"";
+
+        String raw = switch (target.ddbType()) {
+            case S, N -> "String raw = reader.readString(" + tag + ")";
+            case BOOL -> "Boolean raw = reader.readBool()";
+            case B -> "SdkBytes raw = reader.readBinary()";
+            case SS, NS -> "java.util.List<String> raw = reader.readStrings(" + tag + ")";
+            case M -> null;
+            default -> "java.util.List<AttributeValue> raw = reader.readList()";
+        };
+
+        // Nested objects are decoded straight from the reader rather than through an intermediate map.
+        if (target.ddbType() == AttributeValue.Type.M) {
+            return target.assign("reader.readObject(" + nameUtils.serializerInstance(type) + ")") + ";";
+        } else if (target.ddbType() == AttributeValue.Type.L) {
+            TypeMirror itemType = typeMapper.findArrayOrCollectionType(type);
+            if (typeMapper.findDynamoDBType(itemType) == AttributeValue.Type.M) {
+                String serializer = nameUtils.serializerInstance(itemType);
+                if (typeMapper.isArray(type)) {
+                    // readObjects returns null for {"NULL":true}, which leaves the array unset.
+                    return "{\n" +
+                            "\t\t\t\t\tjava.util.List<" + itemType + "> raw = reader.readObjects(" + serializer +
+                            ", new java.util.ArrayList<>());\n" +
+                            "\t\t\t\t\tif (raw != null) {\n" +
+                            "\t\t\t\t\t\t" + target.assign("raw.toArray(new " + typeUtils.erasure(itemType) +
+                            "[0])") + ";\n" +
+                            "\t\t\t\t\t}\n" +
+                            "\t\t\t\t}";
+                }
+                String collection = typeMapper.isSet(type) ? "new java.util.HashSet<>()" : "new java.util.ArrayList<>()";
+                return target.assign("reader.readObjects(" + serializer + ", " + collection + ")") + ";";
+            }
+        }
+
+        String converted = wrapMapGetter(target.name(), type, "raw");
+        return "{\n" +
+                "\t\t\t\t\t" + raw + ";\n" +
+                "\t\t\t\t\tif (raw != null) {\n" +
+                "\t\t\t\t\t\t" + target.assign(converted) + ";\n" +
+                "\t\t\t\t\t}\n" +
+                "\t\t\t\t}";
+    }
+
+    // The expression deserialize() uses to convert a single attribute value into the field's type.
+    String attributeDecoding(String fieldName, TypeMirror type, AttributeValue.Type ddbType, String value) {
+        return wrapMapGetter(fieldName, type, value + "." + ddbType.name().toLowerCase() + "()");
+    }
+
+    // Locals are prefixed so that they cannot clash with the method parameter, the loop variables or lambda
+    // parameters used in the generated conversions.
+    private static String localName(String name) {
+        return "_" + name;
+    }
+
+    // The value of a field whose attribute is missing: the zero value of primitives, and the empty value of sparse
+    // strings, arrays and collections, which serialize() omits.
+    String defaultValue(String fieldName, TypeMirror type) {
+        TypeKind kind = type.getKind();
         if (kind.isPrimitive()) {
             if (kind == TypeKind.BOOLEAN) {
                 return "false";
             } else {
                 return "0";
             }
-        } else {
-            return "null";
+        } else if (annotations.isSparse(fieldName)) {
+            if (typeMapper.isArray(type)) {
+                return "new " + typeUtils.erasure(typeMapper.findArrayOrCollectionType(type)) + "[0]";
+            } else if (type.toString().equals("java.lang.String")) {
+                return "\"\"";
+            } else if (typeMapper.isCollection(type)) {
+                return typeMapper.isSet(type) ? "new java.util.HashSet<>()" : "new java.util.ArrayList<>()";
+            }
+        }
+        return "null";
+    }
+
+    private String wrapMapGetter(String fieldName, TypeMirror type, String mapGetter) {
+        Packed packed = annotations.find(fieldName, Packed.class);
+        if (packed != null && typeMapper.isPackable(type, packed.value())) {
+            String elementType = typeMapper.findArrayOrCollectionType(type).toString();
+            String suffix = packed.value() == Packed.Encoding.DELTA_VARINT ? "Deltas" : "s";
+            return PACKED_ARRAYS + ".unpack" + Character.toUpperCase(elementType.charAt(0)) +
+                    elementType.substring(1) + suffix + "(" + mapGetter + ".asByteBuffer())";
+        }
+
+        if (annotations.find(fieldName, Compressed.class) != null) {
+            return COMPRESSION + (typeMapper.isString(type) ? ".decompressString(" : ".decompressBytes(") +
+                    mapGetter + ".asByteBuffer())";
+        }
+
+        Parallel parallel = annotations.find(fieldName, Parallel.class);
+        if (parallel != null && typeMapper.isObjectList(type)) {
+            TypeMirror itemType = typeMapper.findArrayOrCollectionType(type);
+            String serializer = nameUtils.serializerInstance(itemType);
+            String template = typeMapper.isArray(type) ?
+                    BULK_CONVERTER + ".toObjectArray(%1$s, " + serializer + ", new " + typeUtils.erasure(itemType) +
+                            "[%1$s.size()], " + parallel.threshold() + ")" :
+                    BULK_CONVERTER + ".addObjects(%1$s, " + serializer + ", new java.util.ArrayList<>(%1$s.size()), " +
+                            parallel.threshold() + ")";
+            return String.format(template, mapGetter);
+        }
+
+        TypeMirror enumType = typeMapper.findEnumType(type);
+        if (enumType != null) {
+            return enumDecoding(type, enumType, annotations.find(fieldName, EnumFallback.class), mapGetter);
+        }
+
+        return wrapMapGetter(type, mapGetter);
+    }
+
+    // Enums are decoded with a switch over their names or codes rather than the reflective lookup of valueOf, and
+    // unknown values take the field's fallback instead of an exception if it has one.
+    private String enumDecoding(TypeMirror type, TypeMirror enumType, EnumFallback fallback, String mapGetter) {
+        String enumName = ((TypeElement) typeUtils.asElement(enumType)).getQualifiedName().toString();
+        if (typeMapper.isEnum(type)) {
+            return enumDecoder(enumType, enumName, fallback, mapGetter);
+        }
+
+        String decoder = "(String name) -> " + enumDecoder(enumType, enumName, fallback, "name");
+        if (typeMapper.isArray(type)) {
+            return CONVERTERS + ".toEnumArray(" + mapGetter + ", " + decoder + ", new " + enumName + "[" +
+                    mapGetter + ".size()])";
         }
+        String target = typeMapper.isSet(type) ?
+                "java.util.HashSet.newHashSet(" + mapGetter + ".size())" :
+                "new java.util.ArrayList<>(" + mapGetter + ".size())";
+        return CONVERTERS + ".addEnums(" + mapGetter + ", " + decoder + ", " + target + ")";
+    }
+
+    private String enumDecoder(TypeMirror enumType, String enumName, EnumFallback fallback, String value) {
+        Map<String, Integer> codes = typeMapper.enumCodes(enumType);
+        StringBuilder decoder = new StringBuilder("switch (");
+        decoder.append(codes.isEmpty() ? value : "Integer.parseInt(" + value + ")").append(") {");
+        for (String constant : typeMapper.enumConstants(enumType)) {
+            String label = codes.isEmpty() ? "\"" + constant + "\"" : codes.get(constant).toString();
+            decoder.append(" case ").append(label).append(" -> ").append(enumName).append('.').append(constant)
+                    .append(';');
+        }
+
+        String unknown = fallback == null ? CONVERTERS + ".unknownEnum(" + enumName + ".class, " + value + ")" :
+                fallback.value().isEmpty() ? "null" : enumName + "." + fallback.value();
+        return decoder.append(" default -> ").append(unknown).append("; }").toString();
     }
 
     private String wrapMapGetter(TypeMirror type, String mapGetter) {
         String template = switch (type.toString()) {
             case "int", "java.lang.Integer" -> "Integer.parseInt(%s)";
             case "long", "java.lang.Long" -> "Long.parseLong(%s)";
-            case "double", "java.lang.Double" -> "Double.parseDouble(%s)";
+            case "double", "java.lang.Double" -> NUMBERS + ".parseDouble(%s)";
             case "short", "java.lang.Short" -> "Short.parseShort(%s)";
             case "byte", "java.lang.Byte" -> "Byte.parseByte(%s)";
-            case "float", "java.lang.Float" -> "Float.parseFloat(%s)";
+            case "float", "java.lang.Float" -> NUMBERS + ".parseFloat(%s)";
             case "char", "java.lang.Character" -> "%s.charAt(0)";
+            case "java.math.BigDecimal" -> NUMBERS + ".parseBigDecimal(%s)";
+            case "java.math.BigInteger" -> NUMBERS + ".parseBigInteger(%s)";
+            case "java.util.concurrent.atomic.AtomicInteger" ->
+                    "new java.util.concurrent.atomic.AtomicInteger(Integer.parseInt(%s))";
+            case "java.util.concurrent.atomic.AtomicLong" ->
+                    "new java.util.concurrent.atomic.AtomicLong(Long.parseLong(%s))";
             default -> null;
         };
 
-        if (typeMapper.isEnum(type)) {
-            template = ((TypeElement) typeUtils.asElement(type)).getQualifiedName() + ".valueOf(%s)";
-        } else if (typeMapper.isArray(type)) {
+        if (typeMapper.isArray(type)) {
             TypeMirror arrayType = typeMapper.findArrayOrCollectionType(type);
             if (arrayType.toString().equals("byte")) {
                 template = "%s.asByteArray()";
             } else if (typeMapper.isNumber(arrayType)) {
                 template = switch (arrayType.toString()) {
-                    case "int" -> "%s.stream().map(Integer::parseInt)\n\t\t\t\t\t\t" +
-                            ".collect(ca.fineapps.util.ddb.serializer.Collectors.toArray(int[]::new))";
-                    case "short" -> "%s.stream().map(Short::parseShort)\n\t\t\t\t\t\t" +
-                            ".collect(ca.fineapps.util.ddb.serializer.Collectors.toArray(short[]::new))";
-                    case "long" -> "%s.stream().map(Long::parseLong)\n\t\t\t\t\t\t" +
-                            ".collect(ca.fineapps.util.ddb.serializer.Collectors.toArray(long[]::new))";
-                    case "float" -> "%s.stream().map(Float::parseFloat)\n\t\t\t\t\t\t" +
-                            ".collect(ca.fineapps.util.ddb.serializer.Collectors.toArray(float[]::new))";
-                    case "double" -> "%s.stream().map(Double::parseDouble)\n\t\t\t\t\t\t" +
-                            ".collect(ca.fineapps.util.ddb.serializer.Collectors.toArray(double[]::new))";
-
-                    case "java.lang.Integer" -> "%s.stream().map(Integer::valueOf).toArray(Integer[]::new)";
-                    case "java.lang.Short" -> "%s.stream().map(Short::valueOf).toArray(Short[]::new)";
-                    case "java.lang.Long" -> "%s.stream().map(Long::valueOf).toArray(Long[]::new)";
-                    case "java.lang.Float" -> "%s.stream().map(Float::valueOf).toArray(Float[]::new)";
-                    case "java.lang.Double" -> "%s.stream().map(Double::valueOf).toArray(Double[]::new)";
-                    case "java.lang.Byte" -> "%s.stream().map(Byte::valueOf).toArray(Byte[]::new)";
+                    case "int" -> CONVERTERS + ".toIntArray(%s)";
+                    case "short" -> CONVERTERS + ".toShortArray(%s)";
+                    case "long" -> CONVERTERS + ".toLongArray(%s)";
+                    case "float" -> CONVERTERS + ".toFloatArray(%s)";
+                    case "double" -> CONVERTERS + ".toDoubleArray(%s)";
+
+                    case "java.lang.Integer" -> CONVERTERS + ".toBoxedIntArray(%s)";
+                    case "java.lang.Short" -> CONVERTERS + ".toBoxedShortArray(%s)";
+                    case "java.lang.Long" -> CONVERTERS + ".toBoxedLongArray(%s)";
+                    case "java.lang.Float" -> CONVERTERS + ".toBoxedFloatArray(%s)";
+                    case "java.lang.Double" -> CONVERTERS + ".toBoxedDoubleArray(%s)";
+                    case "java.lang.Byte" -> CONVERTERS + ".toBoxedByteArray(%s)";
+
+                    case "java.math.BigDecimal" -> CONVERTERS + ".toBigDecimalArray(%s)";
+                    case "java.math.BigInteger" -> CONVERTERS + ".toBigIntegerArray(%s)";
                     default -> null;
                 };
             } else if (typeMapper.isString(arrayType)) {
-                template = "%s.toArray(String[]::new)";
+                template = "%s.toArray(new String[0])";
             } else if (arrayType.toString().equals("char")) {
                 template = "%s.toCharArray()";
             } else if (arrayType.toString().equals("java.lang.Character")) {
-                template = "java.util.stream.IntStream.range(0, %s.length()).mapToObj(%s::charAt).toArray(Character[]::new)";
+                template = CONVERTERS + ".toBoxedCharArray(%s)";
             } else if (arrayType.toString().equals("boolean")) {
-                template = "%s.stream().map(AttributeValue::bool)\n\t\t\t\t\t\t" +
-                        ".collect(ca.fineapps.util.ddb.serializer.Collectors.toArray(boolean[]::new))";
+                template = CONVERTERS + ".toBooleanArray(%s)";
             } else if (arrayType.toString().equals("java.lang.Boolean")) {
-                template = "%s.stream().map(AttributeValue::bool).toArray(Boolean[]::new)";
+                template = CONVERTERS + ".toBoxedBooleanArray(%s)";
             } else if (typeMapper.findDynamoDBType(arrayType) == AttributeValue.Type.M) {
-                template = "%s.stream()\n" +
-                        "\t\t\t\t\t.map(AttributeValue::m)\n" +
-                        "\t\t\t\t\t.map(item -> " + customDeserializer(arrayType, "item") + ")\n" +
-                        "\t\t\t\t\t.toArray(" + arrayType + "[]::new)";
-            } else if (typeMapper.isEnum(arrayType)) {
-                template = "%s.stream().map(" + ((TypeElement) typeUtils.asElement(arrayType)).getQualifiedName() + "::valueOf)\n" +
-                        "\t\t\t\t\t.toArray(" + ((TypeElement) typeUtils.asElement(arrayType)).getQualifiedName() + "[]::new)";
+                template = CONVERTERS + ".toObjectArray(%1$s, " + nameUtils.serializerInstance(arrayType) + ", " +
+                        "new " + typeUtils.erasure(arrayType) + "[%1$s.size()])";
             }
         } else if (typeMapper.isCollection(type)) {
             TypeMirror itemType = typeMapper.findArrayOrCollectionType(type);
-            String collector = typeMapper.isSet(type) ? "collect(java.util.stream.Collectors.toSet())" : "toList()";
+            // Collections are filled into a target presized from the attribute, then returned by the converter.
+            String target = typeMapper.isSet(type) ?
+                    "java.util.HashSet.newHashSet(%1$s.size())" :
+                    "new java.util.ArrayList<>(%1$s.size())";
             if (typeMapper.isNumber(itemType)) {
                 template = switch (itemType.toString()) {
-                    case "java.lang.Integer" -> "%s.stream().map(Integer::parseInt)." + collector;
-                    case "java.lang.Short" -> "%s.stream().map(Short::parseShort)." + collector;
-                    case "java.lang.Long" -> "%s.stream().map(Long::parseLong)." + collector;
-                    case "java.lang.Float" -> "%s.stream().map(Float::parseFloat)." + collector;
-                    case "java.lang.Double" -> "%s.stream().map(Double::parseDouble)." + collector;
-                    case "java.lang.Byte" -> "%s.stream().map(Byte::parseByte)." + collector;
+                    case "java.lang.Integer" -> CONVERTERS + ".addIntegers(%1$s, " + target + ")";
+                    case "java.lang.Short" -> CONVERTERS + ".addShorts(%1$s, " + target + ")";
+                    case "java.lang.Long" -> CONVERTERS + ".addLongs(%1$s, " + target + ")";
+                    case "java.lang.Float" -> CONVERTERS + ".addFloats(%1$s, " + target + ")";
+                    case "java.lang.Double" -> CONVERTERS + ".addDoubles(%1$s, " + target + ")";
+                    case "java.lang.Byte" -> CONVERTERS + ".addBytes(%1$s, " + target + ")";
+                    case "java.math.BigDecimal" -> CONVERTERS + ".addBigDecimals(%1$s, " + target + ")";
+                    case "java.math.BigInteger" -> CONVERTERS + ".addBigIntegers(%1$s, " + target + ")";
                     default -> null;
                 };
             } else if (typeMapper.isString(itemType)) {
                 if (typeMapper.isSet(type)) {
-                    template = "%s.stream()." + collector;
+                    template = CONVERTERS + ".addStrings(%1$s, " + target + ")";
                 }
             } else if (itemType.toString().equals("java.lang.Character")) {
-                template = "java.util.stream.IntStream.range(0, %s.length()).mapToObj(%s::charAt)." + collector;
+                template = CONVERTERS + ".addCharacters(%1$s, new java.util.ArrayList<>(%1$s.length()))";
+                if (typeMapper.isSet(type)) {
+                    template = CONVERTERS + ".addCharacters(%1$s, java.util.HashSet.newHashSet(%1$s.length()))";
+                }
             } else if (itemType.toString().equals("java.lang.Boolean")) {
-                template = "%s.stream().map(AttributeValue::bool)." + collector;
+                template = CONVERTERS + ".addBooleans(%1$s, " + target + ")";
             } else if (typeMapper.findDynamoDBType(itemType) == AttributeValue.Type.M) {
-                template = "%s.stream()\n" +
-                        "\t\t\t\t\t.map(AttributeValue::m)\n" +
-                        "\t\t\t\t\t.map(item -> " + customDeserializer(itemType, "item") + ")\n" +
-                        "\t\t\t\t\t." + collector;
-            } else if (typeMapper.isEnum(itemType)) {
-                template = "%s.stream().map(" + ((TypeElement) typeUtils.asElement(itemType)).getQualifiedName() + "::valueOf)\n" +
-                        "\t\t\t\t\t." + collector;
+                template = CONVERTERS + ".addObjects(%1$s, " + nameUtils.serializerInstance(itemType) + ", " + target + ")";
             }
         } else if (customDeserializers.containsKey(type.toString()) ||
                 typeMapper.findDynamoDBType(type) == AttributeValue.Type.M) {
@@ -257,7 +478,8 @@ class FieldDeserializer {
                         .map(param -> new Param(
                                 param.asType(),
                                 param.getSimpleName().toString(),
-                                typeMapper.findDynamoDBType(param.asType())
+                                typeMapper.findDynamoDBType(param.asType(), annotations,
+                                        param.getSimpleName().toString())
                         ))
                         .toList();
 
@@ -281,15 +503,14 @@ class FieldDeserializer {
     private Map<String, BiFunction<TypeMirror, String, String>> buildCustomDeserializers() {
         Map<String, BiFunction<TypeMirror, String, String>> map = new HashMap<>();
 
-        map.put("java.time.Instant", (instanceType, getter) -> "java.time.Instant.ofEpochMilli(Long.valueOf(" + getter + "))");
+        map.put("java.time.Instant", (instanceType, getter) -> "java.time.Instant.ofEpochMilli(Long.parseLong(" + getter + "))");
 
         return map;
     }
 
     private String customDeserializer(TypeMirror type, String getter) {
         BiFunction<TypeMirror, String, String> serializer = customDeserializers.getOrDefault(type.toString(),
-                (aType, aGetter) ->
-                        nameUtils.camelCase(nameUtils.serializerClassName(aType)) + ".deserialize(" + aGetter + ")"
+                (aType, aGetter) -> nameUtils.serializerInstance(aType) + ".deserialize(" + aGetter + ")"
         );
         return serializer.apply(type, getter);
     }
@@ -302,4 +523,12 @@ class FieldDeserializer {
 
     private record Param(TypeMirror type, String name, AttributeValue.Type ddbType) {
     }
+
+    // Where a decoded attribute goes: a setter call or an assignment to the constructor argument's local.
+    private record Target(String name, String attributeName, TypeMirror type, AttributeValue.Type ddbType,
+            String prefix, String suffix) {
+        String assign(String value) {
+            return prefix + value + suffix;
+        }
+    }
 }
@@ -16,64 +16,462 @@ package ca.fineapps.util.ddb.serializer;
 
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import javax.annotation.processing.Messager;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiFunction;
 
 class FieldSerializer {
+    private static final String CONVERTERS = "ca.fineapps.util.ddb.serializer.Converters";
+    private static final String BULK_CONVERTER = "ca.fineapps.util.ddb.serializer.BulkConverter";
+    private static final String COMPRESSION = "ca.fineapps.util.ddb.serializer.Compression";
+    private static final String ITEM_SIZES = "ca.fineapps.util.ddb.serializer.ItemSizes";
+    private static final String NUMBERS = "ca.fineapps.util.ddb.serializer.Numbers";
+    private static final String PACKED_ARRAYS = "ca.fineapps.util.ddb.serializer.PackedArrays";
+    private static final String DYNAMODB_JSON = "ca.fineapps.util.ddb.serializer.DynamoDBJson";
+
+    private static final Set<String> INTEGRAL_TYPES = Set.of(
+            "int", "java.lang.Integer",
+            "long", "java.lang.Long",
+            "short", "java.lang.Short",
+            "byte", "java.lang.Byte"
+    );
+
     private final Types typeUtils;
     private final DynamoDBTypeMapper typeMapper;
+    private final Messager messager;
     private final NameUtils nameUtils;
+    private final FieldAnnotations annotations;
     private final Map<String, BiFunction<TypeMirror, String, String>> customSerializers;
 
-    FieldSerializer(Types typeUtils, Elements elementUtils, NameUtils nameUtils) {
+    FieldSerializer(Types typeUtils, Elements elementUtils, Messager messager, NameUtils nameUtils,
+            FieldAnnotations annotations) {
         this.typeUtils = typeUtils;
         this.typeMapper = new DynamoDBTypeMapper(typeUtils, elementUtils);
+        this.messager = messager;
         this.nameUtils = nameUtils;
+        this.annotations = annotations;
         this.customSerializers = buildCustomSerializers();
     }
 
-    void generateFieldSerialization(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+    List<Field> findFields(TypeMirror type) {
         TypeElement element = (TypeElement) typeUtils.asElement(type);
+        List<Field> fields = new ArrayList<>();
+        Map<String, Element> attributeNames = new HashMap<>();
 
         List<? extends Element> enclosedElements = element.getEnclosedElements();
         for (Element enclosedElement : enclosedElements) {
             if (enclosedElement.getKind() == ElementKind.FIELD) {
                 TypeMirror elementType = enclosedElement.asType();
-                AttributeValue.Type ddbType = typeMapper.findDynamoDBType(elementType);
+                String fieldName = enclosedElement.getSimpleName().toString();
+                AttributeValue.Type ddbType = typeMapper.findDynamoDBType(elementType, annotations, fieldName);
                 String getter = findGetter(element, enclosedElement);
 
-                if (getter != null && ddbType != null) {
-                    if (ddbType == AttributeValue.Type.M) {
-                        dependencies.add(elementType);
+                // Only the fields that are serialized are validated; constants and other state are left alone.
+                if (enclosedElement.getModifiers().contains(Modifier.STATIC) || getter == null) {
+                    continue;
+                }
+                if (typeMapper.isNumber(elementType) && !typeMapper.isConvertibleNumber(elementType, false)) {
+                    messager.printError(elementType + " is not a supported number type", enclosedElement);
+                    continue;
+                }
+                if (typeMapper.isArrayOrCollection(elementType)) {
+                    TypeMirror itemType = typeMapper.findArrayOrCollectionType(elementType);
+                    if (typeMapper.isNumber(itemType) && !typeMapper.isConvertibleNumber(itemType, true)) {
+                        messager.printError(itemType + " is not a supported element type", enclosedElement);
+                        continue;
                     }
+                }
+
+                TypeMirror enumType = typeMapper.findEnumType(elementType);
+                if (enumType != null && !hasValidEnumCodes(enumType, enclosedElement)) {
+                    continue;
+                }
+                EnumFallback fallback = annotations.find(fieldName, EnumFallback.class);
+                if (fallback != null && enumType == null) {
+                    messager.printError("@EnumFallback is not supported for " + elementType, enclosedElement);
+                    continue;
+                }
+                if (fallback != null && !fallback.value().isEmpty() &&
+                        !typeMapper.enumConstants(enumType).contains(fallback.value())) {
+                    messager.printError("@EnumFallback(\"" + fallback.value() + "\") is not a constant of " + enumType,
+                            enclosedElement);
+                    continue;
+                }
+
+                Packed packed = annotations.find(fieldName, Packed.class);
+                if (packed != null && !typeMapper.isPackable(elementType, packed.value())) {
+                    messager.printError("@Packed(" + packed.value() + ") is not supported for " + elementType,
+                            enclosedElement);
+                    continue;
+                }
 
-                    if (!elementType.getKind().isPrimitive()) {
-                        writer.write("\t\tif (object." + getter + "() != null) {\n");
-                        writer.write("\t");
+                Parallel parallel = annotations.find(fieldName, Parallel.class);
+                if (parallel != null && !typeMapper.isObjectList(elementType)) {
+                    messager.printError("@Parallel is not supported for " + elementType +
+                            "; it applies to lists and arrays of serialized objects", enclosedElement);
+                    continue;
+                }
+
+                Scale scale = annotations.find(fieldName, Scale.class);
+                if (scale != null && !Set.of("double", "java.lang.Double", "float", "java.lang.Float")
+                        .contains(elementType.toString())) {
+                    messager.printError("@Scale is not supported for " + elementType, enclosedElement);
+                    continue;
+                }
+                if (scale != null && (scale.value() < 0 || scale.value() > 15)) {
+                    messager.printError("@Scale(" + scale.value() + ") must be from 0 to 15", enclosedElement);
+                    continue;
+                }
+
+                Compressed compressed = annotations.find(fieldName, Compressed.class);
+                if (compressed != null && !Set.of("java.lang.String", "byte[]").contains(elementType.toString())) {
+                    messager.printError("@Compressed is not supported for " + elementType, enclosedElement);
+                    continue;
+                }
+                if (compressed != null && compressed.threshold() < 0) {
+                    messager.printError("@Compressed(threshold = " + compressed.threshold() + ") must not be negative",
+                            enclosedElement);
+                    continue;
+                }
+
+                AttributeName alias = annotations.find(fieldName, AttributeName.class);
+                if (alias != null && !FieldAnnotations.isValidAttributeName(alias.value())) {
+                    messager.printError("@AttributeName(\"" + alias.value() + "\") must not be empty or contain quotes, " +
+                            "backslashes or control characters", enclosedElement);
+                    continue;
+                }
+                String attributeName = annotations.attributeName(fieldName);
+
+                if (ddbType != null) {
+                    Element other = attributeNames.putIfAbsent(attributeName, enclosedElement);
+                    if (other != null) {
+                        messager.printError("Attribute name \"" + attributeName + "\" of " + fieldName +
+                                " is already used by " + other.getSimpleName(), enclosedElement);
+                        continue;
+                    }
+                    fields.add(new Field(enclosedElement, elementType, ddbType, getter, attributeName));
+                }
+            }
+        }
+
+        return fields;
+    }
+
+    // Either no constant of the enum declares a code, or every constant declares a distinct one.
+    private boolean hasValidEnumCodes(TypeMirror enumType, Element field) {
+        Map<String, Integer> codes = typeMapper.enumCodes(enumType);
+        if (codes.isEmpty()) {
+            return true;
+        }
+
+        List<String> missing = typeMapper.enumConstants(enumType).stream()
+                .filter(constant -> !codes.containsKey(constant))
+                .toList();
+        if (!missing.isEmpty()) {
+            messager.printError(enumType + " declares no @EnumCode for " + String.join(", ", missing), field);
+            return false;
+        }
+        if (new HashSet<>(codes.values()).size() < codes.size()) {
+            messager.printError(enumType + " declares the same @EnumCode for several constants", field);
+            return false;
+        }
+        return true;
+    }
+
+    void generateFieldSerialization(List<Field> fields, boolean immutable, Writer writer,
+            Collection<TypeMirror> dependencies) throws IOException {
+        for (Field field : fields) {
+            if (field.ddbType() == AttributeValue.Type.M) {
+                dependencies.add(field.type());
+            }
+
+            // Each getter is evaluated exactly once; values that are checked first are read into a local.
+            String value = "object." + field.getter() + "()";
+            String local = "_" + field.name();
+            String condition = presenceCondition(field, local);
+            if (condition != null) {
+                writer.write("\t\t" + field.type() + " " + local + " = " + value + ";\n");
+                writer.write("\t\tif (" + condition + ") {\n");
+                writer.write("\t");
+                value = local;
+            }
+
+            String attributeValue = attributeValue(field, value, dependencies);
+            if (immutable) {
+                writer.write("\t\tentries[size++] = Map.entry(\"" + field.attributeName() + "\", " + attributeValue +
+                        ");\n");
+            } else {
+                writer.write("\t\tmap.put(\"" + field.attributeName() + "\", " + attributeValue + ");\n");
+            }
+
+            if (condition != null) {
+                writer.write("\t\t}\n");
+            }
+        }
+    }
+
+    // Adds up the size of each present attribute, its name's UTF-8 length being known here, plus the given
+    // per-entry overhead, which nested maps have and items do not.
+    void generateFieldSizeEstimation(List<Field> fields, Writer writer, Collection<TypeMirror> dependencies)
+            throws IOException {
+        for (Field field : fields) {
+            String value = "object." + field.getter() + "()";
+            String local = "_" + field.name();
+            String condition = presenceCondition(field, local);
+            if (condition != null) {
+                writer.write("\t\t" + field.type() + " " + local + " = " + value + ";\n");
+                writer.write("\t\tif (" + condition + ") {\n");
+                writer.write("\t");
+                value = local;
+            }
+
+            long nameSize = field.attributeName().getBytes(StandardCharsets.UTF_8).length;
+            writer.write("\t\tsize += entryOverhead + " + nameSize + " + " + valueSize(field, value, dependencies) +
+                    ";\n");
+
+            if (condition != null) {
+                writer.write("\t\t}\n");
+            }
+        }
+    }
+
+    // Common values are measured straight from the field; the others, such as packed or compressed fields, through
+    // the attribute value serialize() would produce.
+    private String valueSize(Field field, String value, Collection<TypeMirror> dependencies) {
+        TypeMirror type = field.type();
+        boolean converted = annotations.find(field.name(), Packed.class) != null ||
+                annotations.find(field.name(), Compressed.class) != null;
+        if (!converted) {
+            switch (field.ddbType()) {
+                case N -> {
+                    if (INTEGRAL_TYPES.contains(type.toString())) {
+                        return ITEM_SIZES + ".numberSize(" + value + ")";
+                    } else if (type.toString().equals("java.time.Instant")) {
+                        return ITEM_SIZES + ".numberSize(" + value + ".toEpochMilli())";
+                    }
+                    return ITEM_SIZES + ".numberSize(" + scalarString(field, value, dependencies) + ")";
+                }
+                case S -> {
+                    return ITEM_SIZES + ".utf8Length(" + scalarString(field, value, dependencies) + ")";
+                }
+                case BOOL -> {
+                    return "1";
+                }
+                case B -> {
+                    return value + ".length";
+                }
+                case M -> {
+                    dependencies.add(type);
+                    return nameUtils.serializerInstance(type) + ".estimateNestedSize(" + value + ")";
+                }
+                case SS -> {
+                    TypeMirror itemType = typeMapper.findArrayOrCollectionType(type);
+                    if (typeMapper.isCollection(type) && typeMapper.isString(itemType)) {
+                        return ITEM_SIZES + ".stringsSize(" + value + ")";
                     }
-                    writer.write("\t\tmap.put(\"" + enclosedElement.getSimpleName() + "\", " +
-                            "AttributeValue.from" + camelCase(ddbType) + "(" +
-                            wrapGetter(elementType, "object." + getter + "()", dependencies) +
-                            "));\n");
-                    if (!elementType.getKind().isPrimitive()) {
-                        writer.write("\t\t}\n");
+                    return ITEM_SIZES + ".stringsSize(" + wrapGetter(type, value, dependencies) + ")";
+                }
+                case NS -> {
+                    return ITEM_SIZES + ".numbersSize(" + wrapGetter(type, value, dependencies) + ")";
+                }
+                case L -> {
+                    TypeMirror itemType = typeMapper.findArrayOrCollectionType(type);
+                    if (typeMapper.findDynamoDBType(itemType) == AttributeValue.Type.M) {
+                        dependencies.add(itemType);
+                        String values = typeMapper.isArray(type) ? "Arrays.asList(" + value + ")" : value;
+                        return ITEM_SIZES + ".objectsSize(" + values + ", " +
+                                nameUtils.serializerInstance(itemType) + ")";
                     }
                 }
+                default -> {
+                }
+            }
+        }
+
+        return ITEM_SIZES + ".valueSize(" + attributeValue(field, value, dependencies) + ")";
+    }
+
+    // Only changed fields are converted. Reference values are compared with equals, arrays by content and floating
+    // point values by their bits so that NaN does not count as a change.
+    void generateFieldDiff(List<Field> fields, Writer writer, Collection<TypeMirror> dependencies)
+            throws IOException {
+        for (Field field : fields) {
+            String before = "before." + field.getter() + "()";
+            String after = "_" + field.name();
+            TypeKind kind = field.type().getKind();
+
+            String changed = switch (kind) {
+                case DOUBLE -> "Double.compare(" + before + ", " + after + ") != 0";
+                case FLOAT -> "Float.compare(" + before + ", " + after + ") != 0";
+                case ARRAY -> "!Arrays.equals(" + before + ", " + after + ")";
+                default -> kind.isPrimitive() ? before + " != " + after :
+                        "!java.util.Objects.equals(" + before + ", " + after + ")";
+            };
+
+            // A value that serialize() would omit removes the attribute.
+            String present = presenceCondition(field, after);
+            writer.write("\t\t" + field.type() + " " + after + " = after." + field.getter() + "();\n");
+            writer.write("\t\tif (" + changed + ") {\n");
+            if (present == null) {
+                writer.write("\t\t\tupdate.set(\"" + field.attributeName() + "\", " +
+                        attributeValue(field, after, dependencies) + ");\n");
+            } else {
+                writer.write("\t\t\tif (" + present + ") {\n");
+                writer.write("\t\t\t\tupdate.set(\"" + field.attributeName() + "\", " +
+                        attributeValue(field, after, dependencies) + ");\n");
+                writer.write("\t\t\t} else {\n");
+                writer.write("\t\t\t\tupdate.remove(\"" + field.attributeName() + "\");\n");
+                writer.write("\t\t\t}\n");
             }
+            writer.write("\t\t}\n");
         }
     }
 
+    // The condition under which a field's value is written: reference values when they are not null, and values of
+    // sparse fields when they differ from the default read back for a missing attribute. Null if always written.
+    private String presenceCondition(Field field, String value) {
+        TypeMirror type = field.type();
+        String present = type.getKind().isPrimitive() ? null : value + " != null";
+        if (!annotations.isSparse(field.name())) {
+            return present;
+        }
+
+        String nonDefault;
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            nonDefault = value;
+        } else if (type.getKind().isPrimitive()) {
+            nonDefault = value + " != 0";
+        } else if (typeMapper.isArray(type)) {
+            nonDefault = value + ".length != 0";
+        } else if (type.toString().equals("java.lang.String") || typeMapper.isCollection(type)) {
+            nonDefault = "!" + value + ".isEmpty()";
+        } else {
+            return present;
+        }
+        return present == null ? nonDefault : present + " && " + nonDefault;
+    }
+
+    String attributeValue(Field field, String value, Collection<TypeMirror> dependencies) {
+        Packed packed = annotations.find(field.name(), Packed.class);
+        Parallel parallel = annotations.find(field.name(), Parallel.class);
+        Compressed compressed = annotations.find(field.name(), Compressed.class);
+        String converted;
+        if (packed != null) {
+            converted = "SdkBytes.fromByteArrayUnsafe(" + PACKED_ARRAYS + "." +
+                    (packed.value() == Packed.Encoding.DELTA_VARINT ? "packDeltas" : "pack") + "(" + value + "))";
+        } else if (compressed != null) {
+            converted = "SdkBytes.fromByteArrayUnsafe(" + compression(compressed, value) + ")";
+        } else if (parallel != null) {
+            TypeMirror itemType = typeMapper.findArrayOrCollectionType(field.type());
+            dependencies.add(itemType);
+            converted = BULK_CONVERTER + ".toMaps(" + value + ", " + nameUtils.serializerInstance(itemType) + ", " +
+                    parallel.threshold() + ")";
+        } else {
+            converted = scalarString(field, value, dependencies);
+        }
+        return "AttributeValue.from" + camelCase(field.ddbType()) + "(" + converted + ")";
+    }
+
+    void generateJsonFieldSerialization(List<Field> fields, Writer writer, Collection<TypeMirror> dependencies)
+            throws IOException {
+        for (Field field : fields) {
+            String value = "object." + field.getter() + "()";
+            String local = "_" + field.name();
+            String condition = presenceCondition(field, local);
+            String indent = condition == null ? "\t\t" : "\t\t\t";
+            if (condition != null) {
+                writer.write("\t\t" + field.type() + " " + local + " = " + value + ";\n");
+                writer.write("\t\tif (" + condition + ") {\n");
+                value = local;
+            }
+
+            // The attribute name and the type tag are written as one constant: "name":{"S": or ,"name":{"S":
+            String prefix = "\"" + field.attributeName() + "\":{\"" + field.ddbType().name() + "\":";
+            writer.write(indent + "out.append(count++ == 0 ? " + javaString(prefix) + " : " +
+                    javaString("," + prefix) + ");\n");
+            writer.write(indent + jsonValueWriter(field, value, dependencies) + ";\n");
+            writer.write(indent + "out.append('}');\n");
+
+            if (condition != null) {
+                writer.write("\t\t}\n");
+            }
+        }
+    }
+
+    // Writes the value in the same representation serialize() picks for the field, streaming it where possible.
+    private String jsonValueWriter(Field field, String value, Collection<TypeMirror> dependencies) {
+        TypeMirror type = field.type();
+
+        return switch (field.ddbType()) {
+            case S, N -> DYNAMODB_JSON + ".writeString(out, " + scalarString(field, value, dependencies) + ")";
+            case BOOL -> "out.append(" + value + " ? \"true\" : \"false\")";
+            case B -> {
+                Packed packed = annotations.find(field.name(), Packed.class);
+                Compressed compressed = annotations.find(field.name(), Compressed.class);
+                String bytes = value;
+                if (packed != null) {
+                    bytes = PACKED_ARRAYS + "." +
+                            (packed.value() == Packed.Encoding.DELTA_VARINT ? "packDeltas" : "pack") + "(" + value + ")";
+                } else if (compressed != null) {
+                    bytes = compression(compressed, value);
+                }
+                yield DYNAMODB_JSON + ".writeBinary(out, " + bytes + ")";
+            }
+            case SS, NS -> {
+                if (typeMapper.isCollection(type) && typeMapper.isString(typeMapper.findArrayOrCollectionType(type))) {
+                    yield DYNAMODB_JSON + ".writeStrings(out, " + value + ")";
+                }
+                yield DYNAMODB_JSON + ".writeStrings(out, " + wrapGetter(type, value, dependencies) + ")";
+            }
+            case M -> {
+                dependencies.add(type);
+                yield nameUtils.serializerInstance(type) + ".writeJson(" + value + ", out)";
+            }
+            default -> {
+                TypeMirror itemType = typeMapper.findArrayOrCollectionType(type);
+                if (typeMapper.findDynamoDBType(itemType) == AttributeValue.Type.M) {
+                    dependencies.add(itemType);
+                    yield DYNAMODB_JSON + ".writeObjects(out, " + value + ", " +
+                            nameUtils.serializerInstance(itemType) + ")";
+                }
+                yield DYNAMODB_JSON + ".writeValues(out, " + wrapGetter(type, value, dependencies) + ")";
+            }
+        };
+    }
+
+    private static String compression(Compressed compressed, String value) {
+        return COMPRESSION + ".compress(" + value + ", " + compressed.threshold() + ")";
+    }
+
+    private String scalarString(Field field, String value, Collection<TypeMirror> dependencies) {
+        Scale scale = annotations.find(field.name(), Scale.class);
+        if (scale != null) {
+            return NUMBERS + ".toString(" + value + ", " + scale.value() + ")";
+        }
+        return wrapGetter(field.type(), value, dependencies);
+    }
+
+    private static String javaString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
     private String camelCase(AttributeValue.Type ddbType) {
         String typeName = ddbType.name();
         return Character.toUpperCase(typeName.charAt(0)) + (typeName.length() > 1 ? typeName.substring(1).toLowerCase() : "");
@@ -83,63 +481,60 @@ class FieldSerializer {
         String template = switch (type.toString()) {
             case "int", "java.lang.Integer",
                  "long", "java.lang.Long",
-                 "double", "java.lang.Double",
                  "short", "java.lang.Short",
-                 "byte", "java.lang.Byte",
+                 "byte", "java.lang.Byte" -> NUMBERS + ".toString(%s)";
+            case "java.math.BigDecimal", "java.math.BigInteger" -> "%s.toString()";
+            case "java.util.concurrent.atomic.AtomicInteger",
+                 "java.util.concurrent.atomic.AtomicLong" -> NUMBERS + ".toString(%s.get())";
+            case "double", "java.lang.Double",
                  "float", "java.lang.Float",
                  "char", "java.lang.Character" -> "String.valueOf(%s)";
             default -> null;
         };
 
         if (typeMapper.isEnum(type)) {
-            template = "%s.name()";
+            template = typeMapper.isCodedEnum(type) ? enumEncoder(type, "%s") : "%s.name()";
         } else if (typeMapper.isArray(type)) {
             TypeMirror arrayType = typeMapper.findArrayOrCollectionType(type);
             if (arrayType.toString().equals("byte")) {
                 template = "SdkBytes.fromByteArray(%s)";
             } else if (typeMapper.isNumber(arrayType)) {
-                template = "java.util.stream.IntStream.range(0, %s.length).mapToObj(i -> %s[i]).map(String::valueOf).toList()";
+                template = CONVERTERS + ".toStrings(%s)";
             } else if (typeMapper.isString(arrayType)) {
                 template = "Arrays.asList(%s)";
             } else if (arrayType.toString().equals("char")) {
                 template = "new String(%s)";
             } else if (arrayType.toString().equals("java.lang.Character")) {
-                template = "new String(Stream.of(%s).map(String::valueOf).collect(java.util.stream.Collectors.joining()))";
-            } else if (arrayType.toString().equals("boolean")) {
-                template = "java.util.stream.IntStream.range(0, %s.length).mapToObj(i -> AttributeValue.fromBool(%s[i])).toList()";
-            } else if (arrayType.toString().equals("java.lang.Boolean")) {
-                template = "Arrays.stream(%s).map(AttributeValue::fromBool).toList()";
+                template = CONVERTERS + ".toString(%s)";
+            } else if (arrayType.toString().equals("boolean") || arrayType.toString().equals("java.lang.Boolean")) {
+                template = CONVERTERS + ".toBools(%s)";
             } else if (typeMapper.findDynamoDBType(arrayType) == AttributeValue.Type.M) {
                 dependencies.add(arrayType);
-                template = "Arrays.stream(%s)\n" +
-                        "\t\t\t\t\t.map(item -> " + customSerializer(arrayType, "item") + ")\n" +
-                        "\t\t\t\t\t.map(AttributeValue::fromM)\n" +
-                        "\t\t\t\t\t.toList()\n" +
-                        "\t\t\t";
+                template = CONVERTERS + ".toMaps(%s, " + nameUtils.serializerInstance(arrayType) + ")";
             } else if (typeMapper.isEnum(arrayType)) {
-                template = "Arrays.stream(%s).map(" + ((TypeElement) typeUtils.asElement(arrayType)).getQualifiedName() + "::name).toList()";
+                template = typeMapper.isCodedEnum(arrayType) ?
+                        CONVERTERS + ".toCodes(%s, constant -> " + enumEncoder(arrayType, "constant") + ")" :
+                        CONVERTERS + ".toNames(%s)";
             }
         } else if (typeMapper.isCollection(type)) {
             TypeMirror itemType = typeMapper.findArrayOrCollectionType(type);
             if (itemType.toString().equals("byte")) {
                 template = "SdkBytes.fromByteArray(%s)";
             } else if (typeMapper.isNumber(itemType)) {
-                template = "%s.stream().map(String::valueOf).toList()";
+                template = CONVERTERS + ".toStrings(%s)";
             } else if (typeMapper.isString(itemType)) {
                 template = "new java.util.ArrayList<>(%s)";
             } else if (itemType.toString().equals("java.lang.Character")) {
-                template = "%s.stream().map(String::valueOf).collect(java.util.stream.Collectors.joining())";
+                template = CONVERTERS + ".toString(%s)";
             } else if (itemType.toString().equals("java.lang.Boolean")) {
-                template = "%s.stream().map(AttributeValue::fromBool).toList()";
+                template = CONVERTERS + ".toBools(%s)";
             } else if (typeMapper.findDynamoDBType(itemType) == AttributeValue.Type.M) {
                 dependencies.add(itemType);
-                template = "%s.stream()\n" +
-                        "\t\t\t\t\t.map(item -> " + customSerializer(itemType, "item") + ")\n" +
-                        "\t\t\t\t\t.map(AttributeValue::fromM)\n" +
-                        "\t\t\t\t\t.toList()\n" +
-                        "\t\t\t";
+                template = CONVERTERS + ".toMaps(%s, " + nameUtils.serializerInstance(itemType) + ")";
             } else if (typeMapper.isEnum(itemType)) {
-                template = "%s.stream().map(" + ((TypeElement) typeUtils.asElement(itemType)).getQualifiedName() + "::name).toList()";
+                template = typeMapper.isCodedEnum(itemType) ?
+                        CONVERTERS + ".toCodes(%s, constant -> " + enumEncoder(itemType, "constant") + ")" :
+                        CONVERTERS + ".toNames(%s)";
             }
         } else if (customSerializers.containsKey(type.toString()) ||
                 typeMapper.findDynamoDBType(type) == AttributeValue.Type.M) {
@@ -149,6 +544,14 @@ class FieldSerializer {
         return template == null ? getter : String.format(template, getter, getter);
     }
 
+    // An exhaustive switch from each constant of a coded enum to the string of its code.
+    private String enumEncoder(TypeMirror enumType, String value) {
+        StringBuilder encoder = new StringBuilder("switch (" + value + ") {");
+        typeMapper.enumCodes(enumType).forEach((constant, code) ->
+                encoder.append(" case ").append(constant).append(" -> \"").append(code).append("\";"));
+        return encoder.append(" }").toString();
+    }
+
     private String findGetter(TypeElement type, Element field) {
         String fieldName = field.getSimpleName().toString();
 
@@ -180,16 +583,21 @@ class FieldSerializer {
     private Map<String, BiFunction<TypeMirror, String, String>> buildCustomSerializers() {
         Map<String, BiFunction<TypeMirror, String, String>> map = new HashMap<>();
 
-        map.put("java.time.Instant", (instanceType, getter) -> "String.valueOf(" + getter + ".toEpochMilli())");
+        map.put("java.time.Instant", (instanceType, getter) -> NUMBERS + ".toString(" + getter + ".toEpochMilli())");
 
         return map;
     }
 
     private String customSerializer(TypeMirror type, String getter) {
         BiFunction<TypeMirror, String, String> serializer = customSerializers.getOrDefault(type.toString(),
-                (aType, aGetter) ->
-                        nameUtils.camelCase(nameUtils.serializerClassName(aType)) + ".serialize(" + aGetter + ")"
+                (aType, aGetter) -> nameUtils.serializerInstance(aType) + ".serialize(" + aGetter + ")"
         );
         return serializer.apply(type, getter);
     }
+
+    record Field(Element element, TypeMirror type, AttributeValue.Type ddbType, String getter, String attributeName) {
+        String name() {
+            return element.getSimpleName().toString();
+        }
+    }
 }
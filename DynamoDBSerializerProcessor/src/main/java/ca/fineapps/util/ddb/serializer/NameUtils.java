@@ -27,15 +27,30 @@ class NameUtils {
     }
 
     String serializerClassName(TypeMirror type) {
-        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        return generatedClassName((TypeElement) typeUtils.asElement(type), "Serializer");
+    }
+
+    String viewClassName(TypeMirror type) {
+        return generatedClassName((TypeElement) typeUtils.asElement(type), "View");
+    }
+
+    String updatesClassName(TypeMirror type) {
+        return generatedClassName((TypeElement) typeUtils.asElement(type), "Updates");
+    }
+
+    String projectionClassName(TypeElement projection) {
+        return generatedClassName(projection, "Projection");
+    }
 
+    private static String generatedClassName(TypeElement element, String suffix) {
         Element enclosing = element.getEnclosingElement();
         String enclosingTypeName = enclosing instanceof TypeElement ? enclosing.getSimpleName() + "_" : "";
-        return enclosingTypeName + element.getSimpleName().toString() + "Serializer";
+        return enclosingTypeName + element.getSimpleName().toString() + suffix;
     }
 
-    String camelCase(String className) {
-        return Character.toLowerCase(className.charAt(0)) +
-                (className.length() > 1 ? className.substring(1) : "");
+    // Dependencies are resolved through the shared instance on every use rather than held in fields, so that
+    // recursive and cyclic types never need their serializers to exist before they are used.
+    String serializerInstance(TypeMirror type) {
+        return serializerClassName(type) + ".create()";
     }
 }
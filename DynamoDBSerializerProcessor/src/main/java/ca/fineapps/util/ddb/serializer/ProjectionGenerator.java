@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class ProjectionGenerator {
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final Messager messager;
+    private final NameUtils nameUtils;
+
+    ProjectionGenerator(Types typeUtils, Elements elementUtils, Messager messager) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+        this.messager = messager;
+        this.nameUtils = new NameUtils(typeUtils);
+    }
+
+    String projectionClassName(TypeElement projection, TypeMirror target) {
+        String packageName = elementUtils.getPackageOf(typeUtils.asElement(target)).getQualifiedName().toString();
+        return (packageName.isEmpty() ? "" : packageName + ".") + nameUtils.projectionClassName(projection);
+    }
+
+    /**
+     * Matches each abstract method of the projection interface to a serialized field of the target type.
+     *
+     * @return the projected components, or {@code null} if an error was reported
+     */
+    List<Component> findComponents(TypeElement projection, TypeMirror target, List<FieldSerializer.Field> fields) {
+        if (projection.getKind() != ElementKind.INTERFACE) {
+            messager.printError("@Projection can only be used on an interface type", projection);
+            return null;
+        }
+
+        Element targetElement = typeUtils.asElement(target);
+        if (!elementUtils.getPackageOf(projection).equals(elementUtils.getPackageOf(targetElement)) &&
+                !projection.getModifiers().contains(Modifier.PUBLIC)) {
+            messager.printError("A @Projection interface in a different package than " + target +
+                    " must be public", projection);
+            return null;
+        }
+
+        List<Component> components = new ArrayList<>();
+        boolean valid = true;
+
+        for (Element enclosedElement : projection.getEnclosedElements()) {
+            if (enclosedElement.getKind() != ElementKind.METHOD ||
+                    !enclosedElement.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+
+            ExecutableElement method = (ExecutableElement) enclosedElement;
+            FieldSerializer.Field field = findField(fields, method.getSimpleName().toString());
+
+            if (!method.getParameters().isEmpty()) {
+                messager.printError("Projection methods cannot have parameters", method);
+                valid = false;
+            } else if (field == null) {
+                messager.printError(target + " has no serialized field for " + method.getSimpleName(), method);
+                valid = false;
+            } else if (!typeUtils.isSameType(method.getReturnType(), field.type())) {
+                messager.printError("The return type of " + method.getSimpleName() + " must be " + field.type(),
+                        method);
+                valid = false;
+            } else if (components.stream().anyMatch(component -> component.field().equals(field))) {
+                messager.printError(field.name() + " is projected more than once", method);
+                valid = false;
+            } else {
+                components.add(new Component(method, field));
+            }
+        }
+
+        if (valid && components.isEmpty()) {
+            messager.printError("A @Projection interface must declare at least one attribute", projection);
+            valid = false;
+        }
+
+        return valid ? components : null;
+    }
+
+    Collection<TypeMirror> generateProjection(TypeElement projection, TypeMirror target, List<Component> components,
+            FieldAnnotations annotations, Writer writer) throws IOException {
+        Collection<TypeMirror> dependencies = new HashSet<>();
+        String className = nameUtils.projectionClassName(projection);
+
+        writer.write("package " + elementUtils.getPackageOf(typeUtils.asElement(target)).getQualifiedName() + ";\n\n");
+        writer.write("import software.amazon.awssdk.services.dynamodb.model.AttributeValue;\n\n");
+        writer.write("import javax.annotation.processing.Generated;\n");
+        writer.write("import java.util.Map;\n\n");
+
+        writer.write(String.format("@Generated(value = \"%s\", date = \"%s\")\n",
+                getClass().getCanonicalName(), Instant.now()));
+        writer.write("public record " + className + "(\n");
+        writer.write(components.stream()
+                .map(component -> "\t\t" + component.field().type() + " " + component.field().name())
+                .collect(Collectors.joining(",\n")) + "\n");
+        writer.write(") implements " + projection.getQualifiedName() + " {\n\n");
+
+        // Placeholders keep reserved words such as "name" or "status" usable in the expression.
+        writer.write("\tpublic static final String PROJECTION_EXPRESSION = \"" + components.stream()
+                .map(component -> placeholder(component.field().name()))
+                .collect(Collectors.joining(", ")) + "\";\n\n");
+        writer.write("\tpublic static final Map<String, String> EXPRESSION_ATTRIBUTE_NAMES = Map.ofEntries(\n");
+        writer.write(components.stream()
+                .map(component -> "\t\t\tMap.entry(\"" + placeholder(component.field().name()) + "\", \"" +
+                        component.field().attributeName() + "\")")
+                .collect(Collectors.joining(",\n")) + "\n");
+        writer.write("\t);\n\n");
+
+        // Record accessors already implement methods named after the field; getters delegate to them.
+        for (Component component : components) {
+            String methodName = component.method().getSimpleName().toString();
+            if (!methodName.equals(component.field().name())) {
+                writer.write("\t@Override\n");
+                writer.write("\tpublic " + component.field().type() + " " + methodName + "() {\n");
+                writer.write("\t\treturn " + component.field().name() + ";\n");
+                writer.write("\t}\n\n");
+            }
+        }
+
+        writer.write("\tpublic static " + className + " deserialize(Map<String, AttributeValue> map) {\n");
+
+        FieldDeserializer deserializer = new FieldDeserializer(typeUtils, elementUtils, nameUtils, annotations);
+        deserializer.generateProjectionDeserialization(className,
+                components.stream().map(Component::field).toList(), writer, dependencies);
+
+        writer.write("\t}\n");
+        writer.write("}\n");
+
+        return dependencies;
+    }
+
+    private static FieldSerializer.Field findField(List<FieldSerializer.Field> fields, String methodName) {
+        for (FieldSerializer.Field field : fields) {
+            if (field.name().equals(methodName)) {
+                return field;
+            }
+        }
+
+        for (FieldSerializer.Field field : fields) {
+            String capitalized = Character.toUpperCase(field.name().charAt(0)) + field.name().substring(1);
+            if (methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    private static String placeholder(String fieldName) {
+        return "#" + fieldName.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    record Component(ExecutableElement method, FieldSerializer.Field field) {
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Collects the serialized types of every round, and generates the registry once they are all known. Each module
+// gets its own registry, in the common package of its annotated types unless the option names it, so that the
+// registries of several modules on one classpath do not shadow each other.
+class RegistryGenerator {
+    static final String OPTION = "ddb.serializer.registry";
+    static final String SIMPLE_NAME = "Serializers";
+
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final NameUtils nameUtils;
+    // Only names are kept, since elements and type mirrors are not meant to outlive the round they came from.
+    private final Map<String, String> serializers = new LinkedHashMap<>();
+    private List<String> commonPackage;
+
+    RegistryGenerator(Types typeUtils, Elements elementUtils) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+        this.nameUtils = new NameUtils(typeUtils);
+    }
+
+    void addType(TypeMirror type) {
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        String packageName = elementUtils.getPackageOf(element).getQualifiedName().toString();
+        serializers.putIfAbsent(elementUtils.getBinaryName(element).toString(),
+                (packageName.isEmpty() ? "" : packageName + ".") + nameUtils.serializerInstance(type));
+    }
+
+    // Nested types can come from other modules, so only the annotated types place the registry.
+    void addAnnotatedType(TypeMirror type) {
+        addType(type);
+
+        String packageName = elementUtils.getPackageOf(typeUtils.asElement(type)).getQualifiedName().toString();
+        List<String> segments = packageName.isEmpty() ? List.of() : Arrays.asList(packageName.split("\\."));
+        if (commonPackage == null) {
+            commonPackage = segments;
+        } else {
+            int length = 0;
+            while (length < commonPackage.size() && length < segments.size() &&
+                    commonPackage.get(length).equals(segments.get(length))) {
+                length++;
+            }
+            commonPackage = commonPackage.subList(0, length);
+        }
+    }
+
+    boolean isEmpty() {
+        return serializers.isEmpty();
+    }
+
+    /**
+     * @return the qualified name of the registry, or {@code null} if the annotated types share no package
+     */
+    String className(String option) {
+        if (option != null && !option.isEmpty()) {
+            return option;
+        }
+        return commonPackage == null || commonPackage.isEmpty() ? null :
+                String.join(".", commonPackage) + "." + SIMPLE_NAME;
+    }
+
+    void generateRegistry(String className, Writer writer) throws IOException {
+        int separator = className.lastIndexOf('.');
+        String simpleName = className.substring(separator + 1);
+
+        if (separator >= 0) {
+            writer.write("package " + className.substring(0, separator) + ";\n\n");
+        }
+        writer.write("import ca.fineapps.util.ddb.serializer.Serializer;\n\n");
+        writer.write("import javax.annotation.processing.Generated;\n\n");
+
+        writer.write(String.format("@Generated(value = \"%s\", date = \"%s\")\n",
+                getClass().getCanonicalName(), Instant.now()));
+        writer.write("public final class " + simpleName + " {\n\n");
+
+        // The switch over the binary class name runs once per class; ClassValue then serves every later lookup for
+        // that class by identity.
+        writer.write("\tprivate static final ClassValue<Serializer<?>> SERIALIZERS = new ClassValue<>() {\n");
+        writer.write("\t\t@Override\n");
+        writer.write("\t\tprotected Serializer<?> computeValue(Class<?> type) {\n");
+        writer.write("\t\t\treturn switch (type.getName()) {\n");
+        for (Map.Entry<String, String> serializer : serializers.entrySet()) {
+            writer.write("\t\t\t\tcase \"" + serializer.getKey() + "\" -> " + serializer.getValue() + ";\n");
+        }
+        writer.write("\t\t\t\tdefault -> null;\n");
+        writer.write("\t\t\t};\n");
+        writer.write("\t\t}\n");
+        writer.write("\t};\n\n");
+
+        writer.write("\tprivate " + simpleName + "() {\n");
+        writer.write("\t}\n\n");
+
+        writer.write("\t/**\n");
+        writer.write("\t * Returns the shared generated serializer for the given type.\n");
+        writer.write("\t *\n");
+        writer.write("\t * @param type the serialized type\n");
+        writer.write("\t * @return the serializer returned by the generated {@code create()} method for the type\n");
+        writer.write("\t * @throws IllegalArgumentException if no serializer was generated for the type\n");
+        writer.write("\t */\n");
+        writer.write("\t@SuppressWarnings(\"unchecked\")\n");
+        writer.write("\tpublic static <T> Serializer<T> forClass(Class<T> type) {\n");
+        writer.write("\t\tSerializer<T> serializer = (Serializer<T>) SERIALIZERS.get(type);\n");
+        writer.write("\t\tif (serializer == null) {\n");
+        writer.write("\t\t\tthrow new IllegalArgumentException(\"No serializer was generated for \" + type.getName());\n");
+        writer.write("\t\t}\n");
+        writer.write("\t\treturn serializer;\n");
+        writer.write("\t}\n");
+        writer.write("}\n");
+    }
+}
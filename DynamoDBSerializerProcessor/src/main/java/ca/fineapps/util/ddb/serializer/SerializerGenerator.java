@@ -14,6 +14,8 @@
 
 package ca.fineapps.util.ddb.serializer;
 
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
@@ -23,33 +25,42 @@ import java.io.Writer;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.stream.Collectors;
+import java.util.List;
 
 class SerializerGenerator {
     private final Types typeUtils;
     private final Elements elementUtils;
+    private final Messager messager;
     private final NameUtils nameUtils;
 
-    public SerializerGenerator(Types typeUtils, Elements elementUtils) {
+    public SerializerGenerator(Types typeUtils, Elements elementUtils, Messager messager) {
         this.typeUtils = typeUtils;
         this.elementUtils = elementUtils;
+        this.messager = messager;
         this.nameUtils = new NameUtils(typeUtils);
     }
 
-    public Collection<TypeMirror> generateSerializer(TypeMirror type, Writer writer) throws IOException {
+    public Collection<TypeMirror> generateSerializer(TypeMirror type, Element annotatedElement,
+            List<FieldSerializer.Field> fields, Writer writer) throws IOException {
         Collection<TypeMirror> dependencies = new HashSet<>();
+        Serialize options = annotatedElement != null ? annotatedElement.getAnnotation(Serialize.class) : null;
+        FieldAnnotations annotations = new FieldAnnotations((TypeElement) typeUtils.asElement(type), annotatedElement);
 
         generatePackageLine(type, writer);
         generateImports(writer, type);
         generateGeneratedLine(writer);
         generateClassNameLine(type, writer);
 
-        generateSerializeMethod(type, writer, dependencies);
-        generateDeserializeMethod(type, writer, dependencies);
+        generateSerializeMethod(type, annotations, fields, options != null && options.immutable(), writer,
+                dependencies);
+        generateDeserializeMethod(type, annotations, writer, dependencies);
+        generateDiffMethod(type, annotations, fields, writer, dependencies);
+        generateEstimateSizeMethods(type, annotations, fields, writer, dependencies);
+        generateWriteJsonMethod(type, annotations, fields, writer, dependencies);
+        generateReadJsonMethod(type, annotations, writer, dependencies);
 
-        generateFields(dependencies, writer);
-        generateConstructor(type, writer, dependencies);
-        generateCreateMethod(type, writer, dependencies);
+        generateConstructor(type, writer);
+        generateCreateMethod(type, writer);
 
         // Close class
         writer.write("}\n");
@@ -71,10 +82,10 @@ class SerializerGenerator {
         writer.write("import software.amazon.awssdk.core.SdkBytes;\n");
         writer.write("import software.amazon.awssdk.services.dynamodb.model.AttributeValue;\n\n");
         writer.write("import javax.annotation.processing.Generated;\n");
+        writer.write("import java.io.IOException;\n");
         writer.write("import java.util.Arrays;\n");
         writer.write("import java.util.HashMap;\n");
         writer.write("import java.util.Map;\n");
-        writer.write("import java.util.stream.Stream;\n");
 
         writer.write("\n");
     }
@@ -91,76 +102,151 @@ class SerializerGenerator {
                 " implements Serializer<" + typeUtils.asElement(type).getSimpleName() + "> {\n\n");
     }
 
-    private void generateSerializeMethod(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+    private void generateSerializeMethod(TypeMirror type, FieldAnnotations annotations,
+            List<FieldSerializer.Field> fields, boolean immutable, Writer writer, Collection<TypeMirror> dependencies)
+            throws IOException {
         TypeElement element = (TypeElement) typeUtils.asElement(type);
+        FieldSerializer serializer = new FieldSerializer(typeUtils, elementUtils, messager, nameUtils, annotations);
 
         writer.write("\t@Override\n");
+        if (immutable) {
+            writer.write("\t@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        }
         writer.write("\tpublic Map<String, AttributeValue> serialize(" + element.getSimpleName() + " object) {\n");
-        writer.write("\t\tMap<String, AttributeValue> map = new HashMap<>();\n");
+        if (immutable) {
+            writer.write("\t\tMap.Entry<String, AttributeValue>[] entries = new Map.Entry[" + fields.size() + "];\n");
+            writer.write("\t\tint size = 0;\n");
+        } else {
+            // Sized for the known field count so that the map never rehashes.
+            writer.write("\t\tMap<String, AttributeValue> map = HashMap.newHashMap(" + fields.size() + ");\n");
+        }
         writer.write("\n");
 
-        FieldSerializer serializer = new FieldSerializer(typeUtils, elementUtils, nameUtils);
-        serializer.generateFieldSerialization(type, writer, dependencies);
+        serializer.generateFieldSerialization(fields, immutable, writer, dependencies);
 
         writer.write("\n");
-        writer.write("\t\treturn map;\n");
+        if (immutable) {
+            writer.write("\t\treturn Map.ofEntries(size == entries.length ? entries : Arrays.copyOf(entries, size));\n");
+        } else {
+            writer.write("\t\treturn map;\n");
+        }
         writer.write("\t}\n");
         writer.write("\n");
     }
 
-    private void generateDeserializeMethod(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+    private void generateDeserializeMethod(TypeMirror type, FieldAnnotations annotations, Writer writer,
+            Collection<TypeMirror> dependencies) throws IOException {
         TypeElement element = (TypeElement) typeUtils.asElement(type);
 
         writer.write("\t@Override\n");
         writer.write("\tpublic " + element.getSimpleName() + " deserialize(Map<String, AttributeValue> map) {\n");
 
-        FieldDeserializer deserializer = new FieldDeserializer(typeUtils, elementUtils, nameUtils);
+        FieldDeserializer deserializer = new FieldDeserializer(typeUtils, elementUtils, nameUtils, annotations);
         deserializer.generateFieldDeserialization(type, writer, dependencies);
 
         writer.write("\t}\n");
         writer.write("\n");
     }
 
-    private void generateFields(Collection<TypeMirror> dependencies, Writer writer) throws IOException {
-        for (TypeMirror dependency : dependencies) {
-            String serializerName = nameUtils.serializerClassName(dependency);
-            writer.write("\tprivate " + serializerName + " " + nameUtils.camelCase(serializerName) + ";\n");
-        }
+    private void generateDiffMethod(TypeMirror type, FieldAnnotations annotations,
+            List<FieldSerializer.Field> fields, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        FieldSerializer serializer = new FieldSerializer(typeUtils, elementUtils, messager, nameUtils, annotations);
 
-        if (!dependencies.isEmpty()) {
-            writer.write("\n");
-        }
+        writer.write("\t@Override\n");
+        writer.write("\tpublic ca.fineapps.util.ddb.serializer.ItemUpdate diff(" + element.getSimpleName() +
+                " before, " + element.getSimpleName() + " after) {\n");
+        writer.write("\t\tca.fineapps.util.ddb.serializer.ItemUpdate.Builder update = " +
+                "ca.fineapps.util.ddb.serializer.ItemUpdate.builder();\n");
+        writer.write("\n");
+
+        serializer.generateFieldDiff(fields, writer, dependencies);
+
+        writer.write("\n");
+        writer.write("\t\treturn update.build();\n");
+        writer.write("\t}\n");
+        writer.write("\n");
+    }
+
+    private void generateEstimateSizeMethods(TypeMirror type, FieldAnnotations annotations,
+            List<FieldSerializer.Field> fields, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        FieldSerializer serializer = new FieldSerializer(typeUtils, elementUtils, messager, nameUtils, annotations);
+
+        writer.write("\t@Override\n");
+        writer.write("\tpublic long estimateSize(" + element.getSimpleName() + " object) {\n");
+        writer.write("\t\treturn estimateSize(object, 0);\n");
+        writer.write("\t}\n");
+        writer.write("\n");
+
+        // A nested map adds 3 bytes, and one byte for each of its entries.
+        writer.write("\t@Override\n");
+        writer.write("\tpublic long estimateNestedSize(" + element.getSimpleName() + " object) {\n");
+        writer.write("\t\treturn 3 + estimateSize(object, 1);\n");
+        writer.write("\t}\n");
+        writer.write("\n");
+
+        writer.write("\tprivate long estimateSize(" + element.getSimpleName() + " object, int entryOverhead) {\n");
+        writer.write("\t\tlong size = 0;\n");
+        writer.write("\n");
+
+        serializer.generateFieldSizeEstimation(fields, writer, dependencies);
+
+        writer.write("\n");
+        writer.write("\t\treturn size;\n");
+        writer.write("\t}\n");
+        writer.write("\n");
+    }
+
+    private void generateWriteJsonMethod(TypeMirror type, FieldAnnotations annotations,
+            List<FieldSerializer.Field> fields, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        FieldSerializer serializer = new FieldSerializer(typeUtils, elementUtils, messager, nameUtils, annotations);
+
+        writer.write("\t@Override\n");
+        writer.write("\tpublic void writeJson(" + element.getSimpleName() + " object, Appendable out) " +
+                "throws IOException {\n");
+        writer.write("\t\tint count = 0;\n");
+        writer.write("\t\tout.append('{');\n");
+
+        serializer.generateJsonFieldSerialization(fields, writer, dependencies);
+
+        writer.write("\t\tout.append('}');\n");
+        writer.write("\t}\n");
+        writer.write("\n");
     }
 
-    private void generateConstructor(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
-        writer.write("\tprotected " + nameUtils.serializerClassName(type) + "(");
-        writer.write(dependencies.stream()
-                .map(nameUtils::serializerClassName)
-                .map(className -> "\n\t\t\t" + className + " " + nameUtils.camelCase(className))
-                .collect(Collectors.joining(","))
-        );
-        writer.write(") {\n");
-        writer.write(dependencies.stream()
-                .map(nameUtils::serializerClassName)
-                .map(nameUtils::camelCase)
-                .map(fieldName -> "\t\tthis." + fieldName + " = " + fieldName + ";\n")
-                .collect(Collectors.joining(""))
-        );
+    private void generateReadJsonMethod(TypeMirror type, FieldAnnotations annotations, Writer writer,
+            Collection<TypeMirror> dependencies) throws IOException {
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+
+        writer.write("\t@Override\n");
+        writer.write("\tpublic " + element.getSimpleName() + " readJson(" +
+                "ca.fineapps.util.ddb.serializer.DynamoDBJson.Reader reader) {\n");
+
+        FieldDeserializer deserializer = new FieldDeserializer(typeUtils, elementUtils, nameUtils, annotations);
+        deserializer.generateJsonFieldDeserialization(type, writer, dependencies);
+
+        writer.write("\t}\n");
+        writer.write("\n");
+    }
+
+    private void generateConstructor(TypeMirror type, Writer writer) throws IOException {
+        writer.write("\tprotected " + nameUtils.serializerClassName(type) + "() {\n");
         writer.write("\t}\n\n");
     }
 
-    private void generateCreateMethod(TypeMirror type, Writer writer, Collection<TypeMirror> dependencies) throws IOException {
-        writer.write("\tpublic static " + nameUtils.serializerClassName(type) + " create() {\n");
-        writer.write("\t\treturn new " + nameUtils.serializerClassName(type) + "(");
-        writer.write(dependencies.stream()
-                .map(nameUtils::serializerClassName)
-                .map(className -> "\n\t\t\t\t" + className + ".create()")
-                .collect(Collectors.joining(","))
-        );
-        if (!dependencies.isEmpty()) {
-            writer.write("\n\t\t");
-        }
-        writer.write(");\n");
+    private void generateCreateMethod(TypeMirror type, Writer writer) throws IOException {
+        String className = nameUtils.serializerClassName(type);
+
+        writer.write("\tpublic static " + className + " create() {\n");
+        writer.write("\t\treturn Holder.INSTANCE;\n");
+        writer.write("\t}\n");
+        writer.write("\n");
+
+        // Initialization-on-demand holder: the shared instance is created once, lazily and thread-safely.
+        writer.write("\tprivate static final class Holder {\n");
+        writer.write("\t\tprivate static final " + className + " INSTANCE = new " + className + "();\n");
         writer.write("\t}\n");
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class UpdatesGenerator {
+    private static final String ITEM_UPDATE = "ca.fineapps.util.ddb.serializer.ItemUpdate";
+    private static final String NUMBERS = "ca.fineapps.util.ddb.serializer.Numbers";
+    private static final Map<String, TypeKind> ATOMIC_COUNTERS = Map.of(
+            "java.util.concurrent.atomic.AtomicInteger", TypeKind.INT,
+            "java.util.concurrent.atomic.AtomicLong", TypeKind.LONG);
+
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final Messager messager;
+    private final DynamoDBTypeMapper typeMapper;
+    private final NameUtils nameUtils;
+
+    UpdatesGenerator(Types typeUtils, Elements elementUtils, Messager messager) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+        this.messager = messager;
+        this.typeMapper = new DynamoDBTypeMapper(typeUtils, elementUtils);
+        this.nameUtils = new NameUtils(typeUtils);
+    }
+
+    String updatesClassName(TypeMirror type) {
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        String packageName = elementUtils.getPackageOf(element).getQualifiedName().toString();
+        return (packageName.isEmpty() ? "" : packageName + ".") + nameUtils.updatesClassName(type);
+    }
+
+    /**
+     * Generates the atomic update builder of the given type. Numeric fields can be incremented, set fields can
+     * have elements added and removed, and list fields can have elements appended.
+     *
+     * @return the nested types whose serializers convert appended list elements
+     */
+    Collection<TypeMirror> generateUpdates(TypeMirror type, List<FieldSerializer.Field> fields,
+            FieldAnnotations annotations, Writer writer) throws IOException {
+        Collection<TypeMirror> dependencies = new HashSet<>();
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        String className = nameUtils.updatesClassName(type);
+
+        FieldSerializer serializer = new FieldSerializer(typeUtils, elementUtils, messager, nameUtils, annotations);
+
+        writer.write("package " + elementUtils.getPackageOf(element).getQualifiedName() + ";\n\n");
+        writer.write("import software.amazon.awssdk.core.SdkBytes;\n");
+        writer.write("import software.amazon.awssdk.services.dynamodb.model.AttributeValue;\n\n");
+        writer.write("import javax.annotation.processing.Generated;\n");
+        writer.write("import java.util.Arrays;\n\n");
+
+        writer.write("/**\n");
+        writer.write(" * Builds an update of a stored {@link " + element.getQualifiedName() + "} from atomic " +
+                "server-side mutations.\n");
+        writer.write(" */\n");
+        writer.write(String.format("@Generated(value = \"%s\", date = \"%s\")\n",
+                getClass().getCanonicalName(), Instant.now()));
+        writer.write("public final class " + className + " {\n");
+        writer.write("\tprivate final " + ITEM_UPDATE + ".Builder update = " + ITEM_UPDATE + ".builder();\n");
+
+        for (FieldSerializer.Field field : fields) {
+            String capitalized = Character.toUpperCase(field.name().charAt(0)) + field.name().substring(1);
+
+            switch (field.ddbType()) {
+                case N -> {
+                    TypeMirror counterType = counterType(field.type());
+                    if (counterType != null) {
+                        generateMutation(className, "increment" + capitalized, counterType.toString(), "n",
+                                "add", field, serializer, writer, dependencies);
+                    }
+                }
+                case SS, NS -> {
+                    generateMutation(className, "addTo" + capitalized, field.type().toString(), "values",
+                            "add", field, serializer, writer, dependencies);
+                    generateMutation(className, "removeFrom" + capitalized, field.type().toString(), "values",
+                            "delete", field, serializer, writer, dependencies);
+                }
+                case L -> generateMutation(className, "appendTo" + capitalized, field.type().toString(), "items",
+                        "append", field, serializer, writer, dependencies);
+                default -> {
+                }
+            }
+        }
+
+        writer.write("\n");
+        writer.write("\tpublic " + ITEM_UPDATE + " build() {\n");
+        writer.write("\t\treturn update.build();\n");
+        writer.write("\t}\n");
+        writer.write("}\n");
+
+        return dependencies;
+    }
+
+    private void generateMutation(String className, String methodName, String parameterType, String parameterName,
+            String action, FieldSerializer.Field field, FieldSerializer serializer, Writer writer,
+            Collection<TypeMirror> dependencies) throws IOException {
+        writer.write("\n");
+        writer.write("\tpublic " + className + " " + methodName + "(" + parameterType + " " + parameterName + ") {\n");
+        // Atomic counters are incremented by a primitive, which is encoded directly rather than as the field.
+        String value = ATOMIC_COUNTERS.containsKey(field.type().toString()) ?
+                "AttributeValue.fromN(" + NUMBERS + ".toString(" + parameterName + "))" :
+                serializer.attributeValue(field, parameterName, dependencies);
+        writer.write("\t\tupdate." + action + "(\"" + field.attributeName() + "\", " + value + ");\n");
+        writer.write("\t\treturn this;\n");
+        writer.write("\t}\n");
+    }
+
+    // Counters take the primitive form of the field's type, or the type itself for arbitrary-precision numbers;
+    // other numeric types, such as Instant, are not counters.
+    private TypeMirror counterType(TypeMirror type) {
+        TypeKind atomicCounter = ATOMIC_COUNTERS.get(type.toString());
+        if (atomicCounter != null) {
+            return typeUtils.getPrimitiveType(atomicCounter);
+        }
+
+        if (type.getKind().isPrimitive() ||
+                Set.of("java.math.BigDecimal", "java.math.BigInteger").contains(type.toString())) {
+            return type;
+        }
+
+        if (typeMapper.isNumber(type)) {
+            try {
+                return typeUtils.unboxedType(type);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+class ViewGenerator {
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final NameUtils nameUtils;
+
+    ViewGenerator(Types typeUtils, Elements elementUtils) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+        this.nameUtils = new NameUtils(typeUtils);
+    }
+
+    String viewClassName(TypeMirror type) {
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        String packageName = elementUtils.getPackageOf(element).getQualifiedName().toString();
+        return (packageName.isEmpty() ? "" : packageName + ".") + nameUtils.viewClassName(type);
+    }
+
+    /**
+     * Generates the view of the given type.
+     *
+     * @return the types of nested objects, which are exposed as views too
+     */
+    Collection<TypeMirror> generateView(TypeMirror type, List<FieldSerializer.Field> fields,
+            FieldAnnotations annotations, Writer writer) throws IOException {
+        Collection<TypeMirror> nestedTypes = new HashSet<>();
+        TypeElement element = (TypeElement) typeUtils.asElement(type);
+        String className = nameUtils.viewClassName(type);
+
+        FieldDeserializer deserializer = new FieldDeserializer(typeUtils, elementUtils, nameUtils, annotations);
+
+        writer.write("package " + elementUtils.getPackageOf(element).getQualifiedName() + ";\n\n");
+        writer.write("import " + element.getQualifiedName() + ";\n");
+        writer.write("import software.amazon.awssdk.services.dynamodb.model.AttributeValue;\n\n");
+        writer.write("import javax.annotation.processing.Generated;\n");
+        writer.write("import java.util.Map;\n\n");
+
+        writer.write("/**\n");
+        writer.write(" * A read-only view of a serialized {@link " + element.getSimpleName() + "} that decodes each " +
+                "attribute on first access.\n");
+        writer.write(" * Instances are not thread-safe.\n");
+        writer.write(" */\n");
+        writer.write(String.format("@Generated(value = \"%s\", date = \"%s\")\n",
+                getClass().getCanonicalName(), Instant.now()));
+        writer.write("public final class " + className + " {\n");
+        // '$' is left to generated code by convention, so the members of the view do not collide with the fields.
+        writer.write("\tprivate final Map<String, AttributeValue> $map;\n");
+        for (FieldSerializer.Field field : fields) {
+            writer.write("\tprivate boolean " + decodedFlag(field) + ";\n");
+            writer.write("\tprivate " + viewType(field) + " " + valueField(field) + ";\n");
+        }
+        writer.write("\n");
+
+        writer.write("\tpublic " + className + "(Map<String, AttributeValue> map) {\n");
+        writer.write("\t\tthis.$map = map;\n");
+        writer.write("\t}\n");
+
+        for (FieldSerializer.Field field : fields) {
+            String value;
+            // Nested objects are wrapped rather than decoded, so that reading one of their fields stays lazy.
+            if (isNestedObject(field)) {
+                nestedTypes.add(field.type());
+                value = "new " + nameUtils.viewClassName(field.type()) + "(value.m())";
+            } else {
+                value = deserializer.attributeDecoding(field.name(), field.type(), field.ddbType(), "value");
+            }
+
+            writer.write("\n");
+            writer.write("\tpublic " + viewType(field) + " " + field.getter() + "() {\n");
+            writer.write("\t\tif (!" + decodedFlag(field) + ") {\n");
+            writer.write("\t\t\tAttributeValue value = $map.get(\"" + field.attributeName() + "\");\n");
+            writer.write("\t\t\tif (value != null) {\n");
+            writer.write("\t\t\t\t" + valueField(field) + " = " + value + ";\n");
+            String defaultValue = deserializer.defaultValue(field.name(), field.type());
+            if (!field.type().getKind().isPrimitive() && !defaultValue.equals("null")) {
+                writer.write("\t\t\t} else {\n");
+                writer.write("\t\t\t\t" + valueField(field) + " = " + defaultValue + ";\n");
+            }
+            writer.write("\t\t\t}\n");
+            writer.write("\t\t\t" + decodedFlag(field) + " = true;\n");
+            writer.write("\t\t}\n");
+            writer.write("\t\treturn " + valueField(field) + ";\n");
+            writer.write("\t}\n");
+        }
+
+        writer.write("\n");
+        writer.write("\t/**\n");
+        writer.write("\t * Returns the attribute map this view reads from.\n");
+        writer.write("\t */\n");
+        writer.write("\tpublic Map<String, AttributeValue> toMap() {\n");
+        writer.write("\t\treturn $map;\n");
+        writer.write("\t}\n");
+        writer.write("\n");
+        writer.write("\t/**\n");
+        writer.write("\t * Deserializes the whole object.\n");
+        writer.write("\t */\n");
+        writer.write("\tpublic " + element.getSimpleName() + " toObject() {\n");
+        writer.write("\t\treturn " + nameUtils.serializerInstance(type) + ".deserialize($map);\n");
+        writer.write("\t}\n");
+        writer.write("}\n");
+
+        return nestedTypes;
+    }
+
+    private static boolean isNestedObject(FieldSerializer.Field field) {
+        return field.ddbType() == AttributeValue.Type.M;
+    }
+
+    private String viewType(FieldSerializer.Field field) {
+        return isNestedObject(field) ? nameUtils.viewClassName(field.type()) : field.type().toString();
+    }
+
+    private static String valueField(FieldSerializer.Field field) {
+        return "$v_" + field.name();
+    }
+
+    private static String decodedFlag(FieldSerializer.Field field) {
+        return "$d_" + field.name();
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import javax.annotation.processing.Generated;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Deserializes the results of a {@code DynamoDbAsyncClient} away from the threads that complete its requests.
+ *
+ * <p>The SDK completes responses on its event loop threads, where decoding the items would hold up every
+ * other request on the same connection. These adapters hand the responses to an executor instead, the
+ * common {@link ForkJoinPool} unless another one is given, and deserialize them there:
+ * </p>
+ *
+ * <pre>
+ * Flow.Publisher&lt;MyDataType&gt; results = AsyncAdapters.fromQuery(asyncClient.queryPaginator(request),
+ *         MyDataTypeSerializer.create(), executor);
+ * CompletableFuture&lt;MyDataType&gt; myData = AsyncAdapters.fromGetItem(asyncClient.getItem(request),
+ *         MyDataTypeSerializer.create(), executor);
+ * </pre>
+ *
+ * <p>The publishers honour the demand of their subscriber: a page is only requested once the items of the
+ * previous one have been delivered and more items are wanted, and items are only deserialized when they are
+ * delivered. Each subscription runs the request again.
+ * </p>
+ *
+ * @see Serializer
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public final class AsyncAdapters {
+    private AsyncAdapters() {
+    }
+
+    /**
+     * Publishes the objects of the pages of a query, such as a {@code QueryPublisher}.
+     *
+     * @param pages the publisher of the query's pages
+     * @param serializer the serializer of the queried items
+     * @return the publisher of the queried objects, in the order of the query
+     * @param <T> the type of the queried objects
+     */
+    public static <T> Flow.Publisher<T> fromQuery(Publisher<QueryResponse> pages, Serializer<T> serializer) {
+        return fromQuery(pages, serializer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Publishes the objects of the pages of a query, such as a {@code QueryPublisher}, deserializing them
+     * on the given executor.
+     *
+     * @param pages the publisher of the query's pages
+     * @param serializer the serializer of the queried items
+     * @param executor the executor that deserializes the items and calls the subscriber
+     * @return the publisher of the queried objects, in the order of the query
+     * @param <T> the type of the queried objects
+     */
+    public static <T> Flow.Publisher<T> fromQuery(Publisher<QueryResponse> pages, Serializer<T> serializer,
+            Executor executor) {
+        return subscriber -> pages.subscribe(new ItemSubscriber<>(subscriber, QueryResponse::items, serializer,
+                executor));
+    }
+
+    /**
+     * Publishes the objects of the pages of a scan, such as a {@code ScanPublisher}.
+     *
+     * @param pages the publisher of the scan's pages
+     * @param serializer the serializer of the scanned items
+     * @return the publisher of the scanned objects, in the order of the scan
+     * @param <T> the type of the scanned objects
+     */
+    public static <T> Flow.Publisher<T> fromScan(Publisher<ScanResponse> pages, Serializer<T> serializer) {
+        return fromScan(pages, serializer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Publishes the objects of the pages of a scan, such as a {@code ScanPublisher}, deserializing them on
+     * the given executor.
+     *
+     * @param pages the publisher of the scan's pages
+     * @param serializer the serializer of the scanned items
+     * @param executor the executor that deserializes the items and calls the subscriber
+     * @return the publisher of the scanned objects, in the order of the scan
+     * @param <T> the type of the scanned objects
+     */
+    public static <T> Flow.Publisher<T> fromScan(Publisher<ScanResponse> pages, Serializer<T> serializer,
+            Executor executor) {
+        return subscriber -> pages.subscribe(new ItemSubscriber<>(subscriber, ScanResponse::items, serializer,
+                executor));
+    }
+
+    /**
+     * Deserializes the item of a {@code GetItem} response.
+     *
+     * @param response the pending response
+     * @param serializer the serializer of the item
+     * @return the future object, completed with {@code null} if there is no such item
+     * @param <T> the type of the object
+     */
+    public static <T> CompletableFuture<T> fromGetItem(CompletableFuture<GetItemResponse> response,
+            Serializer<T> serializer) {
+        return fromGetItem(response, serializer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Deserializes the item of a {@code GetItem} response on the given executor.
+     *
+     * @param response the pending response
+     * @param serializer the serializer of the item
+     * @param executor the executor that deserializes the item and completes the returned future
+     * @return the future object, completed with {@code null} if there is no such item
+     * @param <T> the type of the object
+     */
+    public static <T> CompletableFuture<T> fromGetItem(CompletableFuture<GetItemResponse> response,
+            Serializer<T> serializer, Executor executor) {
+        return response.thenApplyAsync(item -> item.hasItem() ? serializer.deserialize(item.item()) : null,
+                executor);
+    }
+
+    // Receives pages and delivers their items one by one. All deliveries run in a drain loop on the executor
+    // that is entered by one thread at a time: whoever increments the work counter from zero schedules the
+    // loop, and the loop keeps running until it has caught up with every signal counted meanwhile.
+    private static final class ItemSubscriber<R, T> implements Subscriber<R>, Flow.Subscription {
+        private final Flow.Subscriber<? super T> downstream;
+        private final Function<R, List<Map<String, AttributeValue>>> items;
+        private final Serializer<T> serializer;
+        private final Executor executor;
+
+        private final Queue<Map<String, AttributeValue>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile Subscription upstream;
+        private volatile boolean pageRequested;
+        private volatile boolean upstreamDone;
+        private volatile Throwable failure;
+        private volatile boolean cancelled;
+
+        ItemSubscriber(Flow.Subscriber<? super T> downstream, Function<R, List<Map<String, AttributeValue>>> items,
+                Serializer<T> serializer, Executor executor) {
+            this.downstream = downstream;
+            this.items = items;
+            this.serializer = serializer;
+            this.executor = executor;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(R page) {
+            pending.addAll(items.apply(page));
+            pageRequested = false;
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            upstreamDone = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Signalled from the drain loop, so that it is not delivered concurrently with onNext.
+                failure = new IllegalArgumentException("The requested number of items must be positive: " + n);
+                upstreamDone = true;
+                upstream.cancel();
+                pending.clear();
+                schedule();
+                return;
+            }
+
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            pending.clear();
+        }
+
+        private void schedule() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (cancelled) {
+                    pending.clear();
+                    return;
+                }
+
+                while (demand.get() > 0 && !pending.isEmpty()) {
+                    T object;
+                    try {
+                        object = serializer.deserialize(pending.poll());
+                    } catch (RuntimeException ex) {
+                        cancel();
+                        downstream.onError(ex);
+                        return;
+                    }
+
+                    downstream.onNext(object);
+                    demand.decrementAndGet();
+                    if (cancelled) {
+                        return;
+                    }
+                }
+
+                if (pending.isEmpty()) {
+                    if (upstreamDone) {
+                        cancelled = true;
+                        if (failure != null) {
+                            downstream.onError(failure);
+                        } else {
+                            downstream.onComplete();
+                        }
+                        return;
+                    }
+
+                    if (demand.get() > 0 && !pageRequested) {
+                        pageRequested = true;
+                        upstream.request(1);
+                    }
+                }
+
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
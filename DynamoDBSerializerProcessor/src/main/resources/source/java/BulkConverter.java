@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import javax.annotation.processing.Generated;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+// Converts batches of items in order. Batches of at least the threshold size are split into contiguous chunks that
+// are converted in parallel, each chunk writing its results into its own range of a presized list.
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public class BulkConverter {
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    // Below this many items per chunk, handing the chunk to another thread costs more than converting it. Lower
+    // thresholds still split their batches, in chunks of at least half the threshold.
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private BulkConverter() {
+    }
+
+    public static <S, R> List<R> convert(Collection<? extends S> items, Function<? super S, ? extends R> converter,
+            Executor executor, int threshold) {
+        int size = items.size();
+        if (!isParallel(size, threshold)) {
+            List<R> results = new ArrayList<>(size);
+            for (S item : items) {
+                results.add(converter.apply(item));
+            }
+            return results;
+        }
+
+        Object[] input = items.toArray();
+        List<R> results = new ArrayList<>(Collections.nCopies(size, null));
+        parallelFor(size, threshold, executor, i -> {
+            @SuppressWarnings("unchecked")
+            S item = (S) input[i];
+            results.set(i, converter.apply(item));
+        });
+        return results;
+    }
+
+    // The conversions of @Parallel fields, which run on the common pool once a list reaches the field's threshold.
+
+    public static <T> T[] toObjectArray(List<AttributeValue> values, Serializer<T> serializer, T[] array,
+            int threshold) {
+        if (!isParallel(array.length, threshold)) {
+            return Converters.toObjectArray(values, serializer, array);
+        }
+
+        parallelFor(array.length, threshold, ForkJoinPool.commonPool(),
+                i -> array[i] = serializer.deserialize(values.get(i).m()));
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, C extends Collection<T>> C addObjects(List<AttributeValue> values, Serializer<T> serializer,
+            C target, int threshold) {
+        if (!isParallel(values.size(), threshold)) {
+            return Converters.addObjects(values, serializer, target);
+        }
+
+        target.addAll(Arrays.asList(toObjectArray(values, serializer, (T[]) new Object[values.size()], threshold)));
+        return target;
+    }
+
+    public static <T> List<AttributeValue> toMaps(T[] values, Serializer<T> serializer, int threshold) {
+        return toMaps(Arrays.asList(values), serializer, threshold);
+    }
+
+    public static <T> List<AttributeValue> toMaps(Collection<? extends T> values, Serializer<T> serializer,
+            int threshold) {
+        if (!isParallel(values.size(), threshold)) {
+            return Converters.toMaps(values, serializer);
+        }
+
+        return convert(values, value -> AttributeValue.fromM(serializer.serialize(value)), ForkJoinPool.commonPool(),
+                threshold);
+    }
+
+    private static boolean isParallel(int size, int threshold) {
+        return size >= threshold && size >= 2;
+    }
+
+    // Runs the body for every index in [0, size), splitting the range into contiguous chunks run on the executor.
+    private static void parallelFor(int size, int threshold, Executor executor, IntConsumer body) {
+        int parallelism = executor instanceof ForkJoinPool pool ? pool.getParallelism() :
+                Runtime.getRuntime().availableProcessors();
+        int minChunkSize = Math.max(1, Math.min(MIN_CHUNK_SIZE, threshold / 2));
+        int chunks = Math.max(1, Math.min(parallelism, size / minChunkSize));
+        int chunkSize = (size + chunks - 1) / chunks;
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = chunk * chunkSize;
+            int to = Math.min(size, from + chunkSize);
+            futures[chunk] = CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException ex) {
+            // Rethrow what the converter threw, as the sequential path does.
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import javax.annotation.processing.Generated;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Loads items into a table with {@code BatchWriteItem}.
+ *
+ * <p>Items are serialized on the calling thread and grouped into batches of at most 25 items and
+ * 16 MB. Each batch is sent on its own virtual thread, with at most {@link Builder#concurrency(int)}
+ * batches in flight; once that many are pending, serialization waits for a batch to complete, so
+ * the memory used does not depend on the number of items. Items that DynamoDB returns as unprocessed
+ * are sent again after an exponential backoff with full jitter.
+ * </p>
+ *
+ * <pre>
+ * BulkWriter&lt;MyDataType&gt; writer = BulkWriter.builder(client, "my-table", MyDataTypeSerializer.create())
+ *         .concurrency(32)
+ *         .build();
+ * writer.write(objects.stream());
+ * </pre>
+ *
+ * <p>A writer can be used for several loads, including concurrent ones. Its counters add up over
+ * all of them.
+ * </p>
+ *
+ * @param <T> the type of the written objects
+ *
+ * @see Serializer
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public final class BulkWriter<T> {
+    /**
+     * The most items a {@code BatchWriteItem} request can hold.
+     */
+    public static final int MAX_BATCH_ITEMS = 25;
+
+    /**
+     * The largest total size of a {@code BatchWriteItem} request.
+     */
+    public static final long MAX_BATCH_BYTES = 16L * 1024 * 1024;
+
+    private final DynamoDbClient client;
+    private final String tableName;
+    private final Serializer<T> serializer;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final LongAdder itemsWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder requestsSent = new LongAdder();
+    private final LongAdder itemsRetried = new LongAdder();
+
+    private BulkWriter(Builder<T> builder) {
+        this.client = builder.client;
+        this.tableName = builder.tableName;
+        this.serializer = builder.serializer;
+        this.concurrency = builder.concurrency;
+        this.maxAttempts = builder.maxAttempts;
+        this.baseBackoffNanos = builder.baseBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+    }
+
+    public static <T> Builder<T> builder(DynamoDbClient client, String tableName, Serializer<T> serializer) {
+        return new Builder<>(client, tableName, serializer);
+    }
+
+    /**
+     * Writes all objects of the stream and returns once every one of them is stored.
+     *
+     * @param objects the objects to write
+     * @throws IllegalArgumentException if an item is larger than {@link ItemSizes#MAX_ITEM_BYTES}
+     * @throws IllegalStateException if items are still unprocessed after the maximum number of attempts
+     */
+    public void write(Stream<? extends T> objects) {
+        write(objects.iterator());
+    }
+
+    /**
+     * Writes all remaining objects of the iterator and returns once every one of them is stored.
+     * When a batch fails, no further batches are started, the ones in flight are completed, and the
+     * failure is rethrown.
+     *
+     * @param objects the objects to write
+     * @throws IllegalArgumentException if an item is larger than {@link ItemSizes#MAX_ITEM_BYTES}; the
+     *         items before it may have been written
+     * @throws IllegalStateException if items are still unprocessed after the maximum number of attempts
+     */
+    public void write(Iterator<? extends T> objects) {
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<WriteRequest> batch = new ArrayList<>(MAX_BATCH_ITEMS);
+            long batchBytes = 0;
+
+            while (objects.hasNext() && failure.get() == null) {
+                Map<String, AttributeValue> item = serializer.serialize(objects.next());
+                long itemBytes = ItemSizes.itemSize(item);
+                if (itemBytes > ItemSizes.MAX_ITEM_BYTES) {
+                    throw new IllegalArgumentException("An item of " + itemBytes + " bytes exceeds the limit of " +
+                            ItemSizes.MAX_ITEM_BYTES + " bytes");
+                }
+
+                if (batch.size() == MAX_BATCH_ITEMS || batchBytes + itemBytes > MAX_BATCH_BYTES) {
+                    submit(executor, inFlight, failure, batch, batchBytes);
+                    batch = new ArrayList<>(MAX_BATCH_ITEMS);
+                    batchBytes = 0;
+                }
+
+                batch.add(WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build());
+                batchBytes += itemBytes;
+            }
+
+            if (!batch.isEmpty() && failure.get() == null) {
+                submit(executor, inFlight, failure, batch, batchBytes);
+            }
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private void submit(ExecutorService executor, Semaphore inFlight, AtomicReference<RuntimeException> failure,
+            List<WriteRequest> batch, long batchBytes) {
+        inFlight.acquireUninterruptibly();
+        executor.execute(() -> {
+            try {
+                send(batch);
+                itemsWritten.add(batch.size());
+                bytesWritten.add(batchBytes);
+            } catch (RuntimeException ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void send(List<WriteRequest> batch) {
+        List<WriteRequest> pending = batch;
+
+        for (int attempt = 1; ; attempt++) {
+            BatchWriteItemResponse response = client.batchWriteItem(BatchWriteItemRequest.builder()
+                    .requestItems(Map.of(tableName, pending))
+                    .build());
+            requestsSent.increment();
+
+            List<WriteRequest> unprocessed = response.unprocessedItems().getOrDefault(tableName, List.of());
+            if (unprocessed.isEmpty()) {
+                return;
+            }
+            if (attempt == maxAttempts) {
+                throw new IllegalStateException(unprocessed.size() + " items of table " + tableName +
+                        " were still unprocessed after " + maxAttempts + " attempts");
+            }
+
+            itemsRetried.add(unprocessed.size());
+            pending = unprocessed;
+            backoff(attempt);
+        }
+    }
+
+    // Full jitter: a uniformly random delay of up to the exponentially growing cap spreads the retries of
+    // concurrent batches out instead of sending them again at the same time.
+    private void backoff(int attempt) {
+        long cap = backoffCap(baseBackoffNanos, maxBackoffNanos, attempt);
+        if (cap == 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(cap + 1)));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry unprocessed items", ex);
+        }
+    }
+
+    // The base doubled for each attempt after the first, saturating at the maximum instead of overflowing.
+    static long backoffCap(long baseNanos, long maxNanos, int attempt) {
+        if (baseNanos == 0) {
+            return 0;
+        }
+        int shift = attempt - 1;
+        return shift >= Long.numberOfLeadingZeros(baseNanos) ? maxNanos :
+                Math.min(maxNanos, baseNanos << shift);
+    }
+
+    /**
+     * Returns the number of items stored so far.
+     *
+     * @return the number of items stored
+     */
+    public long itemsWritten() {
+        return itemsWritten.sum();
+    }
+
+    /**
+     * Returns the size of the items stored so far, as counted by DynamoDB towards the item size limit.
+     *
+     * @return the size of the items stored in bytes
+     */
+    public long bytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Returns the number of {@code BatchWriteItem} requests sent so far, including retries.
+     *
+     * @return the number of requests sent
+     */
+    public long requestsSent() {
+        return requestsSent.sum();
+    }
+
+    /**
+     * Returns the number of items that were returned as unprocessed and sent again.
+     *
+     * @return the number of retried items
+     */
+    public long itemsRetried() {
+        return itemsRetried.sum();
+    }
+
+    /**
+     * Configures a {@link BulkWriter}.
+     */
+    public static final class Builder<T> {
+        private final DynamoDbClient client;
+        private final String tableName;
+        private final Serializer<T> serializer;
+        private int concurrency = 16;
+        private int maxAttempts = 10;
+        private Duration baseBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+
+        private Builder(DynamoDbClient client, String tableName, Serializer<T> serializer) {
+            this.client = client;
+            this.tableName = tableName;
+            this.serializer = serializer;
+        }
+
+        /**
+         * Sets the most batches that are sent at the same time. Defaults to 16.
+         *
+         * @param concurrency the number of batches in flight
+         * @return this builder
+         */
+        public Builder<T> concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Sets how many times a batch is sent before its remaining unprocessed items fail the write.
+         * Defaults to 10.
+         *
+         * @param maxAttempts the number of attempts per batch
+         * @return this builder
+         */
+        public Builder<T> maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the backoff before retrying unprocessed items. The delay is random, up to the base delay
+         * doubled for each attempt and capped at the maximum. Defaults to 50 ms and 10 s.
+         *
+         * @param base the cap of the delay before the first retry
+         * @param max the cap of the delay before any retry
+         * @return this builder
+         */
+        public Builder<T> backoff(Duration base, Duration max) {
+            if (base == null || max == null) {
+                throw new IllegalArgumentException("The backoff durations must not be null");
+            }
+            if (base.isNegative() || base.compareTo(max) > 0) {
+                throw new IllegalArgumentException("The base backoff must be between zero and the maximum: " +
+                        base + ", " + max);
+            }
+            this.baseBackoff = base;
+            this.maxBackoff = max;
+            return this;
+        }
+
+        public BulkWriter<T> build() {
+            return new BulkWriter<>(this);
+        }
+    }
+}
@@ -0,0 +1,587 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import javax.annotation.processing.Generated;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Stores objects whose items can exceed the item size limit as a head item plus chunk items.
+ *
+ * <p>An object whose serialized item fits in a chunk is stored as a single, ordinary item. A larger object
+ * is split: the head item keeps its key and as many of its smallest attributes as fit, and the remaining
+ * attributes are spread over chunk items that share the partition key. An attribute too large for one
+ * chunk, such as a long list, is split across several chunks by element; strings and binaries are split by
+ * bytes. Both the decision to split and the chunk boundaries are computed with {@link ItemSizes} from the
+ * serialized attribute map; {@link Serializer#estimateSize(Object)} is not used, so the object is serialized
+ * and compressed only once.
+ * </p>
+ *
+ * <p>Every write of a chunked object picks a random version, which the head item stores. The sort key of a
+ * chunk is the head's followed by {@code #chunk#}, the version, {@code #} and a four-digit index, so a write
+ * never overwrites the chunks that the current head refers to. The chunks are written first and the head
+ * last, which switches readers to the new version at once; the chunks of the replaced version are deleted
+ * afterwards. If a write fails before its head is stored, the stored object is unchanged. Reading an object
+ * takes one query for the head's sort key and the sort keys of its chunks, of which only those of the
+ * head's version are used. The table's sort key must be a string.
+ * </p>
+ *
+ * <pre>
+ * ChunkedItems&lt;MyDataType&gt; items = ChunkedItems.builder(client, "my-table", MyDataTypeSerializer.create())
+ *         .keys("pk", "sk")
+ *         .build();
+ * items.put(myData);
+ * MyDataType stored = items.get(Map.of("pk", AttributeValue.fromS("a"), "sk", AttributeValue.fromS("b")));
+ * </pre>
+ *
+ * <p>A read that overlaps a write of the same object can find the chunks of the head it read already
+ * deleted, and then fails with an {@link IllegalStateException} instead of returning a partial object; it
+ * can be retried. Chunks of other versions, such as those of a write that failed, are never read.
+ * </p>
+ *
+ * @param <T> the type of the stored objects
+ *
+ * @see Serializer
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public final class ChunkedItems<T> {
+    /**
+     * The separator between the head's sort key and the version and index of a chunk.
+     */
+    public static final String CHUNK_SEPARATOR = "#chunk#";
+
+    /**
+     * The attribute of a head item that holds its number of chunks.
+     */
+    public static final String CHUNKS_ATTRIBUTE = "_chunks";
+
+    /**
+     * The attribute of a head item that holds the version of its chunks.
+     */
+    public static final String VERSION_ATTRIBUTE = "_version";
+
+    private static final int MAX_CHUNKS = 10_000;
+    private static final String LAST_INDEX = Integer.toString(MAX_CHUNKS - 1);
+    // Versions are random longs in hexadecimal, padded to a fixed length.
+    private static final int VERSION_LENGTH = 16;
+    // Leftover chunks are never read, so deleting them is not worth more attempts.
+    private static final int MAX_DELETE_ATTEMPTS = 3;
+
+    // The chunk count and version attributes at their largest.
+    private static final long RESERVED_BYTES = ItemSizes.utf8Length(CHUNKS_ATTRIBUTE) +
+            ItemSizes.numberSize(MAX_CHUNKS) + ItemSizes.utf8Length(VERSION_ATTRIBUTE) + VERSION_LENGTH;
+
+    private static final Serializer<Map<String, AttributeValue>> ITEMS = new Serializer<>() {
+        @Override
+        public Map<String, AttributeValue> serialize(Map<String, AttributeValue> object) {
+            return object;
+        }
+
+        @Override
+        public Map<String, AttributeValue> deserialize(Map<String, AttributeValue> map) {
+            return map;
+        }
+    };
+
+    private final DynamoDbClient client;
+    private final String tableName;
+    private final Serializer<T> serializer;
+    private final String partitionKey;
+    private final String sortKey;
+    private final long chunkSize;
+    private final boolean consistentRead;
+    private final BulkWriter<Map<String, AttributeValue>> chunkWriter;
+
+    private ChunkedItems(Builder<T> builder) {
+        this.client = builder.client;
+        this.tableName = builder.tableName;
+        this.serializer = builder.serializer;
+        this.partitionKey = builder.partitionKey;
+        this.sortKey = builder.sortKey;
+        this.chunkSize = builder.chunkSize;
+        this.consistentRead = builder.consistentRead;
+        this.chunkWriter = BulkWriter.builder(client, tableName, ITEMS).build();
+    }
+
+    public static <T> Builder<T> builder(DynamoDbClient client, String tableName, Serializer<T> serializer) {
+        return new Builder<>(client, tableName, serializer);
+    }
+
+    /**
+     * Stores the object, as a single item if it fits in a chunk and as a head item and its chunks otherwise.
+     *
+     * @param object the object to store
+     * @throws IllegalArgumentException if the object lacks a key attribute, or has an element or entry too
+     *         large for a chunk
+     */
+    public void put(T object) {
+        List<Map<String, AttributeValue>> items = split(object);
+        // The head goes last, so it never refers to chunks that are not stored yet. The chunks of the head it
+        // replaces have other keys, so they stay readable until then.
+        if (items.size() > 1) {
+            chunkWriter.write(items.subList(1, items.size()).iterator());
+        }
+
+        PutItemResponse response = client.putItem(PutItemRequest.builder()
+                .tableName(tableName)
+                .item(items.get(0))
+                .returnValues(ReturnValue.ALL_OLD)
+                .build());
+        if (response.hasAttributes()) {
+            deleteChunks(response.attributes());
+        }
+    }
+
+    /**
+     * Reads the object with the given key.
+     *
+     * @param key the partition and sort key attributes of the object's head item
+     * @return the object, or {@code null} if there is no item with the key
+     * @throws IllegalStateException if a chunk of the head's version is missing, as when the object is
+     *         replaced during the read
+     */
+    public T get(Map<String, AttributeValue> key) {
+        String sort = sortKey(key);
+        // Chunks of every version sort between the head and this bound; join keeps those of the head's version.
+        QueryRequest request = QueryRequest.builder()
+                .tableName(tableName)
+                .keyConditionExpression("#pk = :pk AND #sk BETWEEN :head AND :last")
+                .expressionAttributeNames(Map.of("#pk", partitionKey, "#sk", sortKey))
+                .expressionAttributeValues(Map.of(":pk", key.get(partitionKey),
+                        ":head", AttributeValue.fromS(sort),
+                        ":last", AttributeValue.fromS(sort + CHUNK_SEPARATOR + Character.MAX_VALUE)))
+                .consistentRead(consistentRead)
+                .build();
+
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        while (true) {
+            QueryResponse response = client.query(request);
+            items.addAll(response.items());
+            if (!response.hasLastEvaluatedKey() || response.lastEvaluatedKey().isEmpty()) {
+                break;
+            }
+            request = request.toBuilder().exclusiveStartKey(response.lastEvaluatedKey()).build();
+        }
+
+        return join(sort, items);
+    }
+
+    /**
+     * Builds the items that store the object: a single item if it fits in a chunk, otherwise the head item
+     * followed by its chunks in order. They can be used to write the object as part of another transaction.
+     *
+     * @param object the object to split
+     * @return the items of the object, head first
+     * @throws IllegalArgumentException if the object lacks a key attribute, or has an element or entry too
+     *         large for a chunk
+     */
+    public List<Map<String, AttributeValue>> split(T object) {
+        Map<String, AttributeValue> item = serializer.serialize(object);
+        String sort = sortKey(item);
+        long itemSize = ItemSizes.itemSize(item);
+        if (itemSize <= chunkSize) {
+            return List.of(item);
+        }
+
+        Map<String, AttributeValue> key = Map.of(partitionKey, item.get(partitionKey), sortKey, item.get(sortKey));
+        // Chunks have the longest keys, as their sort keys add the separator, version and index to the head's.
+        long budget = chunkSize - ItemSizes.itemSize(key) - CHUNK_SEPARATOR.length() - VERSION_LENGTH - 1 -
+                LAST_INDEX.length() - RESERVED_BYTES;
+        if (budget < 64) {
+            throw new IllegalArgumentException("The key of the item leaves no room in chunks of " + chunkSize +
+                    " bytes");
+        }
+
+        // The smallest attributes stay on the head, so the ones that are usually filtered on remain readable
+        // there.
+        List<Map.Entry<String, Long>> sizes = new ArrayList<>(item.size());
+        item.forEach((name, value) -> {
+            if (!key.containsKey(name)) {
+                sizes.add(Map.entry(name, ItemSizes.utf8Length(name) + ItemSizes.valueSize(value)));
+            }
+        });
+        sizes.sort(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, AttributeValue> head = new LinkedHashMap<>(key);
+        List<Map<String, AttributeValue>> chunks = new ArrayList<>();
+        Map<String, AttributeValue> chunk = null;
+        long headBytes = 0;
+        long chunkBytes = 0;
+
+        for (Map.Entry<String, Long> entry : sizes) {
+            String name = entry.getKey();
+            long size = entry.getValue();
+
+            if (chunks.isEmpty() && headBytes + size <= budget) {
+                head.put(name, item.get(name));
+                headBytes += size;
+            } else if (size <= budget) {
+                if (chunk == null || chunkBytes + size > budget) {
+                    chunk = new LinkedHashMap<>();
+                    chunks.add(chunk);
+                    chunkBytes = 0;
+                }
+                chunk.put(name, item.get(name));
+                chunkBytes += size;
+            } else {
+                for (AttributeValue part : splitValue(name, item.get(name), budget - ItemSizes.utf8Length(name))) {
+                    chunk = new LinkedHashMap<>();
+                    chunk.put(name, part);
+                    chunks.add(chunk);
+                    chunkBytes = ItemSizes.utf8Length(name) + ItemSizes.valueSize(part);
+                }
+            }
+        }
+
+        if (chunks.size() > MAX_CHUNKS) {
+            throw new IllegalArgumentException("An item of " + itemSize + " bytes needs more than " +
+                    MAX_CHUNKS + " chunks");
+        }
+
+        String version = String.format("%0" + VERSION_LENGTH + "x", ThreadLocalRandom.current().nextLong());
+        head.put(CHUNKS_ATTRIBUTE, AttributeValue.fromN(Integer.toString(chunks.size())));
+        head.put(VERSION_ATTRIBUTE, AttributeValue.fromS(version));
+
+        List<Map<String, AttributeValue>> items = new ArrayList<>(chunks.size() + 1);
+        items.add(head);
+        for (int index = 0; index < chunks.size(); index++) {
+            Map<String, AttributeValue> chunkItem = new LinkedHashMap<>();
+            chunkItem.put(partitionKey, key.get(partitionKey));
+            chunkItem.put(sortKey, AttributeValue.fromS(chunkSortKey(sort, version, index)));
+            chunkItem.putAll(chunks.get(index));
+            items.add(chunkItem);
+        }
+        return items;
+    }
+
+    /**
+     * Rebuilds an object from the items of its key, such as those returned by querying for the head's sort
+     * key and the sort keys that start with it. Items of other keys and chunks of other versions are ignored.
+     *
+     * @param sort the sort key of the head item
+     * @param items the head item and its chunks, in any order
+     * @return the object, or {@code null} if the items do not include the head
+     * @throws IllegalStateException if a chunk of the head's version is missing
+     */
+    public T join(String sort, List<Map<String, AttributeValue>> items) {
+        Map<String, AttributeValue> head = null;
+        for (Map<String, AttributeValue> item : items) {
+            if (item.get(sortKey).s().equals(sort)) {
+                head = item;
+            }
+        }
+
+        if (head == null) {
+            return null;
+        }
+        AttributeValue count = head.get(CHUNKS_ATTRIBUTE);
+        if (count == null) {
+            return serializer.deserialize(head);
+        }
+
+        String prefix = chunkPrefix(sort, head.get(VERSION_ATTRIBUTE).s());
+        Map<Integer, Map<String, AttributeValue>> chunks = new HashMap<>();
+        for (Map<String, AttributeValue> item : items) {
+            String itemSort = item.get(sortKey).s();
+            if (itemSort.length() == prefix.length() + LAST_INDEX.length() && itemSort.startsWith(prefix)) {
+                chunks.put(Integer.parseInt(itemSort, prefix.length(), itemSort.length(), 10), item);
+            }
+        }
+
+        Map<String, AttributeValue> item = new HashMap<>(head);
+        item.remove(CHUNKS_ATTRIBUTE);
+        item.remove(VERSION_ATTRIBUTE);
+
+        Map<String, List<AttributeValue>> parts = new LinkedHashMap<>();
+        for (int index = 0, chunkCount = Integer.parseInt(count.n()); index < chunkCount; index++) {
+            Map<String, AttributeValue> chunk = chunks.get(index);
+            if (chunk == null) {
+                throw new IllegalStateException("Chunk " + index + " of item " + sort + " is missing");
+            }
+
+            chunk.forEach((name, value) -> {
+                if (!name.equals(partitionKey) && !name.equals(sortKey)) {
+                    parts.computeIfAbsent(name, ignored -> new ArrayList<>()).add(value);
+                }
+            });
+        }
+
+        parts.forEach((name, values) -> item.put(name, joinValues(name, values)));
+        return serializer.deserialize(item);
+    }
+
+    private String sortKey(Map<String, AttributeValue> item) {
+        AttributeValue sort = item.get(sortKey);
+        if (item.get(partitionKey) == null || sort == null || sort.s() == null) {
+            throw new IllegalArgumentException("The item needs a " + partitionKey + " attribute and a " + sortKey +
+                    " string attribute");
+        }
+        return sort.s();
+    }
+
+    // Deletes the chunks of a replaced head. Deletes that are still unprocessed after a few attempts are
+    // given up, as reads only select the chunks of the current head's version.
+    private void deleteChunks(Map<String, AttributeValue> replaced) {
+        AttributeValue count = replaced.get(CHUNKS_ATTRIBUTE);
+        if (count == null) {
+            return;
+        }
+
+        String prefix = chunkPrefix(replaced.get(sortKey).s(), replaced.get(VERSION_ATTRIBUTE).s());
+        int chunkCount = Integer.parseInt(count.n());
+        for (int from = 0; from < chunkCount; from += BulkWriter.MAX_BATCH_ITEMS) {
+            List<WriteRequest> pending = new ArrayList<>(BulkWriter.MAX_BATCH_ITEMS);
+            for (int index = from; index < Math.min(chunkCount, from + BulkWriter.MAX_BATCH_ITEMS); index++) {
+                Map<String, AttributeValue> key = Map.of(partitionKey, replaced.get(partitionKey),
+                        sortKey, AttributeValue.fromS(prefix + indexDigits(index)));
+                pending.add(WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build());
+            }
+
+            for (int attempt = 0; attempt < MAX_DELETE_ATTEMPTS && !pending.isEmpty(); attempt++) {
+                pending = client.batchWriteItem(BatchWriteItemRequest.builder()
+                                .requestItems(Map.of(tableName, pending))
+                                .build())
+                        .unprocessedItems().getOrDefault(tableName, List.of());
+            }
+        }
+    }
+
+    private static String chunkPrefix(String sort, String version) {
+        return sort + CHUNK_SEPARATOR + version + "#";
+    }
+
+    private static String chunkSortKey(String sort, String version, int index) {
+        return chunkPrefix(sort, version) + indexDigits(index);
+    }
+
+    private static String indexDigits(int index) {
+        String digits = Integer.toString(index);
+        return "0".repeat(LAST_INDEX.length() - digits.length()) + digits;
+    }
+
+    private static List<AttributeValue> splitValue(String name, AttributeValue value, long limit) {
+        return switch (value.type()) {
+            case L -> splitElements(name, value.l(), element -> 1 + ItemSizes.valueSize(element), 3, limit,
+                    AttributeValue::fromL);
+            case M -> splitElements(name, List.copyOf(value.m().entrySet()),
+                    entry -> 1 + ItemSizes.utf8Length(entry.getKey()) + ItemSizes.valueSize(entry.getValue()), 3,
+                    limit, entries -> {
+                        Map<String, AttributeValue> map = new LinkedHashMap<>();
+                        entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+                        return AttributeValue.fromM(map);
+                    });
+            case SS -> splitElements(name, value.ss(), ItemSizes::utf8Length, 0, limit, AttributeValue::fromSs);
+            case NS -> splitElements(name, value.ns(), ItemSizes::numberSize, 0, limit, AttributeValue::fromNs);
+            case BS -> splitElements(name, value.bs(), bytes -> bytes.asByteBuffer().remaining(), 0, limit,
+                    AttributeValue::fromBs);
+            case S -> splitString(value.s(), limit);
+            case B -> splitBytes(value.b().asByteArrayUnsafe(), (int) limit);
+            default -> throw new IllegalArgumentException("Attribute " + name + " of type " + value.type() +
+                    " cannot be split into chunks");
+        };
+    }
+
+    private static <E> List<AttributeValue> splitElements(String name, List<E> elements, ToLongFunction<E> sizes,
+            long overhead, long limit, Function<List<E>, AttributeValue> factory) {
+        List<AttributeValue> parts = new ArrayList<>();
+        List<E> part = new ArrayList<>();
+        long partBytes = overhead;
+
+        for (E element : elements) {
+            long size = sizes.applyAsLong(element);
+            if (overhead + size > limit) {
+                throw new IllegalArgumentException("An element of " + size + " bytes of attribute " + name +
+                        " does not fit in a chunk");
+            }
+            if (partBytes + size > limit) {
+                parts.add(factory.apply(part));
+                part = new ArrayList<>();
+                partBytes = overhead;
+            }
+            part.add(element);
+            partBytes += size;
+        }
+
+        if (!part.isEmpty()) {
+            parts.add(factory.apply(part));
+        }
+        return parts;
+    }
+
+    // Splits between code points, so each part is a valid string.
+    private static List<AttributeValue> splitString(String value, long limit) {
+        List<AttributeValue> parts = new ArrayList<>();
+        int start = 0;
+        long partBytes = 0;
+
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            int bytes = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (partBytes + bytes > limit) {
+                parts.add(AttributeValue.fromS(value.substring(start, i)));
+                start = i;
+                partBytes = 0;
+            }
+            partBytes += bytes;
+            i += Character.charCount(codePoint);
+        }
+
+        parts.add(AttributeValue.fromS(value.substring(start)));
+        return parts;
+    }
+
+    private static List<AttributeValue> splitBytes(byte[] value, int limit) {
+        List<AttributeValue> parts = new ArrayList<>();
+        for (int start = 0; start < value.length; start += limit) {
+            parts.add(AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(
+                    Arrays.copyOfRange(value, start, Math.min(value.length, start + limit)))));
+        }
+        return parts;
+    }
+
+    private static AttributeValue joinValues(String name, List<AttributeValue> parts) {
+        AttributeValue first = parts.get(0);
+        if (parts.size() == 1) {
+            return first;
+        }
+        for (AttributeValue part : parts) {
+            if (part.type() != first.type()) {
+                throw new IllegalStateException("The chunks of attribute " + name + " have different types");
+            }
+        }
+
+        return switch (first.type()) {
+            case L -> AttributeValue.fromL(joinLists(parts, AttributeValue::l));
+            case SS -> AttributeValue.fromSs(joinLists(parts, AttributeValue::ss));
+            case NS -> AttributeValue.fromNs(joinLists(parts, AttributeValue::ns));
+            case BS -> AttributeValue.fromBs(joinLists(parts, AttributeValue::bs));
+            case M -> {
+                Map<String, AttributeValue> map = new LinkedHashMap<>();
+                parts.forEach(part -> map.putAll(part.m()));
+                yield AttributeValue.fromM(map);
+            }
+            case S -> {
+                StringBuilder value = new StringBuilder();
+                parts.forEach(part -> value.append(part.s()));
+                yield AttributeValue.fromS(value.toString());
+            }
+            case B -> {
+                int length = parts.stream().mapToInt(part -> part.b().asByteArrayUnsafe().length).sum();
+                byte[] value = new byte[length];
+                int offset = 0;
+                for (AttributeValue part : parts) {
+                    byte[] bytes = part.b().asByteArrayUnsafe();
+                    System.arraycopy(bytes, 0, value, offset, bytes.length);
+                    offset += bytes.length;
+                }
+                yield AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(value));
+            }
+            default -> throw new IllegalStateException("Attribute " + name + " of type " + first.type() +
+                    " is split across chunks");
+        };
+    }
+
+    private static <E> List<E> joinLists(List<AttributeValue> parts, Function<AttributeValue, List<E>> elements) {
+        List<E> joined = new ArrayList<>();
+        parts.forEach(part -> joined.addAll(elements.apply(part)));
+        return joined;
+    }
+
+    /**
+     * Configures {@link ChunkedItems}.
+     */
+    public static final class Builder<T> {
+        private final DynamoDbClient client;
+        private final String tableName;
+        private final Serializer<T> serializer;
+        private String partitionKey;
+        private String sortKey;
+        private long chunkSize = ItemSizes.MAX_ITEM_BYTES;
+        private boolean consistentRead;
+
+        private Builder(DynamoDbClient client, String tableName, Serializer<T> serializer) {
+            this.client = client;
+            this.tableName = tableName;
+            this.serializer = serializer;
+        }
+
+        /**
+         * Sets the names of the table's key attributes. Required.
+         *
+         * @param partitionKey the name of the partition key attribute
+         * @param sortKey the name of the sort key attribute, which must be a string
+         * @return this builder
+         */
+        public Builder<T> keys(String partitionKey, String sortKey) {
+            this.partitionKey = partitionKey;
+            this.sortKey = sortKey;
+            return this;
+        }
+
+        /**
+         * Sets the largest size of an item, including its key. Defaults to {@link ItemSizes#MAX_ITEM_BYTES}.
+         *
+         * @param chunkSize the largest item size in bytes
+         * @return this builder
+         */
+        public Builder<T> chunkSize(long chunkSize) {
+            if (chunkSize < 1024 || chunkSize > ItemSizes.MAX_ITEM_BYTES) {
+                throw new IllegalArgumentException("chunkSize must be between 1024 and " + ItemSizes.MAX_ITEM_BYTES +
+                        ": " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sets whether reads are strongly consistent. Defaults to {@code false}.
+         *
+         * @param consistentRead whether reads are strongly consistent
+         * @return this builder
+         */
+        public Builder<T> consistentRead(boolean consistentRead) {
+            this.consistentRead = consistentRead;
+            return this;
+        }
+
+        public ChunkedItems<T> build() {
+            if (partitionKey == null || sortKey == null) {
+                throw new IllegalStateException("keys must be set");
+            }
+            return new ChunkedItems<>(this);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import javax.annotation.processing.Generated;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Binary forms of fields annotated with @Compressed. Each value starts with a header byte: RAW followed by the
+// value's bytes, or DEFLATE followed by the uncompressed length as a varint and a raw deflate stream. Values below
+// the field's threshold, and values that deflate does not shrink, are stored raw. Deflaters and inflaters hold
+// native memory, so one of each is kept per thread and reset after every use.
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public class Compression {
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    // Shorter values cannot shrink once the header, the length and the deflate framing are added.
+    private static final int MIN_DEFLATE_LENGTH = 16;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() ->
+            new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private Compression() {
+    }
+
+    public static byte[] compress(String value, int threshold) {
+        return compress(value.getBytes(StandardCharsets.UTF_8), threshold);
+    }
+
+    public static byte[] compress(byte[] value, int threshold) {
+        if (value.length >= Math.max(threshold, MIN_DEFLATE_LENGTH)) {
+            byte[] deflated = deflate(value);
+            if (deflated != null) {
+                return deflated;
+            }
+        }
+
+        byte[] raw = new byte[value.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(value, 0, raw, 1, value.length);
+        return raw;
+    }
+
+    public static String decompressString(ByteBuffer buffer) {
+        return new String(decompressBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    public static byte[] decompressBytes(ByteBuffer buffer) {
+        byte header = buffer.get();
+        if (header == RAW) {
+            byte[] value = new byte[buffer.remaining()];
+            buffer.get(value);
+            return value;
+        } else if (header != DEFLATE) {
+            throw new IllegalArgumentException("Unknown compression header " + header);
+        }
+
+        byte[] value = new byte[readVarint(buffer)];
+        Inflater inflater = INFLATER.get();
+        try {
+            inflater.setInput(buffer);
+            int position = 0;
+            while (position < value.length) {
+                int inflated = inflater.inflate(value, position, value.length - position);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("Compressed value is shorter than its length of " +
+                            value.length);
+                }
+                position += inflated;
+            }
+        } catch (DataFormatException ex) {
+            throw new IllegalArgumentException("Compressed value is corrupt", ex);
+        } finally {
+            inflater.reset();
+        }
+        return value;
+    }
+
+    // Returns null if the compressed value would not be smaller than the raw one.
+    private static byte[] deflate(byte[] value) {
+        // The output stops at the size of the raw form, so it never has to grow.
+        byte[] output = new byte[value.length + 1];
+        output[0] = DEFLATE;
+        int position = writeVarint(output, 1, value.length);
+
+        Deflater deflater = DEFLATER.get();
+        try {
+            deflater.setInput(value);
+            deflater.finish();
+            while (!deflater.finished() && position < output.length) {
+                position += deflater.deflate(output, position, output.length - position);
+            }
+            return deflater.finished() && position < output.length ? Arrays.copyOf(output, position) : null;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    private static int writeVarint(byte[] output, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            output[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Compressed value has a malformed length");
+    }
+}
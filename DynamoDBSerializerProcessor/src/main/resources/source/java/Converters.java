@@ -0,0 +1,415 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import javax.annotation.processing.Generated;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Loop-based conversions used by generated serializers for arrays and collections. Primitive element types are
+// converted without boxing, and every result is allocated at its final size.
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public class Converters {
+    private Converters() {
+    }
+
+    public static List<String> toStrings(int[] values) {
+        List<String> strings = new ArrayList<>(values.length);
+        for (int value : values) {
+            strings.add(Numbers.toString(value));
+        }
+        return strings;
+    }
+
+    public static List<String> toStrings(short[] values) {
+        List<String> strings = new ArrayList<>(values.length);
+        for (short value : values) {
+            strings.add(Numbers.toString(value));
+        }
+        return strings;
+    }
+
+    public static List<String> toStrings(long[] values) {
+        List<String> strings = new ArrayList<>(values.length);
+        for (long value : values) {
+            strings.add(Numbers.toString(value));
+        }
+        return strings;
+    }
+
+    public static List<String> toStrings(float[] values) {
+        List<String> strings = new ArrayList<>(values.length);
+        for (float value : values) {
+            strings.add(String.valueOf(value));
+        }
+        return strings;
+    }
+
+    public static List<String> toStrings(double[] values) {
+        List<String> strings = new ArrayList<>(values.length);
+        for (double value : values) {
+            strings.add(String.valueOf(value));
+        }
+        return strings;
+    }
+
+    public static List<String> toStrings(Object[] values) {
+        List<String> strings = new ArrayList<>(values.length);
+        for (Object value : values) {
+            strings.add(Numbers.valueOf(value));
+        }
+        return strings;
+    }
+
+    public static List<String> toStrings(Collection<?> values) {
+        List<String> strings = new ArrayList<>(values.size());
+        for (Object value : values) {
+            strings.add(Numbers.valueOf(value));
+        }
+        return strings;
+    }
+
+    public static List<String> toNames(Enum<?>[] values) {
+        List<String> names = new ArrayList<>(values.length);
+        for (Enum<?> value : values) {
+            names.add(value.name());
+        }
+        return names;
+    }
+
+    public static List<String> toNames(Collection<? extends Enum<?>> values) {
+        List<String> names = new ArrayList<>(values.size());
+        for (Enum<?> value : values) {
+            names.add(value.name());
+        }
+        return names;
+    }
+
+    public static <E extends Enum<E>> List<String> toCodes(E[] values, Function<E, String> codes) {
+        List<String> strings = new ArrayList<>(values.length);
+        for (E value : values) {
+            strings.add(codes.apply(value));
+        }
+        return strings;
+    }
+
+    public static <E extends Enum<E>> List<String> toCodes(Collection<E> values, Function<E, String> codes) {
+        List<String> strings = new ArrayList<>(values.size());
+        for (E value : values) {
+            strings.add(codes.apply(value));
+        }
+        return strings;
+    }
+
+    public static String toString(Character[] values) {
+        StringBuilder builder = new StringBuilder(values.length);
+        for (Character value : values) {
+            builder.append(value.charValue());
+        }
+        return builder.toString();
+    }
+
+    public static String toString(Collection<Character> values) {
+        StringBuilder builder = new StringBuilder(values.size());
+        for (Character value : values) {
+            builder.append(value.charValue());
+        }
+        return builder.toString();
+    }
+
+    public static List<AttributeValue> toBools(boolean[] values) {
+        List<AttributeValue> bools = new ArrayList<>(values.length);
+        for (boolean value : values) {
+            bools.add(AttributeValue.fromBool(value));
+        }
+        return bools;
+    }
+
+    public static List<AttributeValue> toBools(Boolean[] values) {
+        List<AttributeValue> bools = new ArrayList<>(values.length);
+        for (Boolean value : values) {
+            bools.add(AttributeValue.fromBool(value));
+        }
+        return bools;
+    }
+
+    public static List<AttributeValue> toBools(Collection<Boolean> values) {
+        List<AttributeValue> bools = new ArrayList<>(values.size());
+        for (Boolean value : values) {
+            bools.add(AttributeValue.fromBool(value));
+        }
+        return bools;
+    }
+
+    public static <T> List<AttributeValue> toMaps(T[] values, Serializer<T> serializer) {
+        List<AttributeValue> maps = new ArrayList<>(values.length);
+        for (T value : values) {
+            maps.add(AttributeValue.fromM(serializer.serialize(value)));
+        }
+        return maps;
+    }
+
+    public static <T> List<AttributeValue> toMaps(Collection<? extends T> values, Serializer<T> serializer) {
+        List<AttributeValue> maps = new ArrayList<>(values.size());
+        for (T value : values) {
+            maps.add(AttributeValue.fromM(serializer.serialize(value)));
+        }
+        return maps;
+    }
+
+    public static int[] toIntArray(List<String> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Integer.parseInt(values.get(i));
+        }
+        return array;
+    }
+
+    public static Integer[] toBoxedIntArray(List<String> values) {
+        Integer[] array = new Integer[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Integer.parseInt(values.get(i));
+        }
+        return array;
+    }
+
+    public static short[] toShortArray(List<String> values) {
+        short[] array = new short[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Short.parseShort(values.get(i));
+        }
+        return array;
+    }
+
+    public static Short[] toBoxedShortArray(List<String> values) {
+        Short[] array = new Short[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Short.parseShort(values.get(i));
+        }
+        return array;
+    }
+
+    public static long[] toLongArray(List<String> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Long.parseLong(values.get(i));
+        }
+        return array;
+    }
+
+    public static Long[] toBoxedLongArray(List<String> values) {
+        Long[] array = new Long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Long.parseLong(values.get(i));
+        }
+        return array;
+    }
+
+    public static float[] toFloatArray(List<String> values) {
+        float[] array = new float[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Numbers.parseFloat(values.get(i));
+        }
+        return array;
+    }
+
+    public static Float[] toBoxedFloatArray(List<String> values) {
+        Float[] array = new Float[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Numbers.parseFloat(values.get(i));
+        }
+        return array;
+    }
+
+    public static double[] toDoubleArray(List<String> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Numbers.parseDouble(values.get(i));
+        }
+        return array;
+    }
+
+    public static Double[] toBoxedDoubleArray(List<String> values) {
+        Double[] array = new Double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Numbers.parseDouble(values.get(i));
+        }
+        return array;
+    }
+
+    public static Byte[] toBoxedByteArray(List<String> values) {
+        Byte[] array = new Byte[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Byte.parseByte(values.get(i));
+        }
+        return array;
+    }
+
+    public static BigDecimal[] toBigDecimalArray(List<String> values) {
+        BigDecimal[] array = new BigDecimal[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Numbers.parseBigDecimal(values.get(i));
+        }
+        return array;
+    }
+
+    public static BigInteger[] toBigIntegerArray(List<String> values) {
+        BigInteger[] array = new BigInteger[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Numbers.parseBigInteger(values.get(i));
+        }
+        return array;
+    }
+
+    public static boolean[] toBooleanArray(List<AttributeValue> values) {
+        boolean[] array = new boolean[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i).bool();
+        }
+        return array;
+    }
+
+    public static Boolean[] toBoxedBooleanArray(List<AttributeValue> values) {
+        Boolean[] array = new Boolean[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i).bool();
+        }
+        return array;
+    }
+
+    public static Character[] toBoxedCharArray(String value) {
+        Character[] array = new Character[value.length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = value.charAt(i);
+        }
+        return array;
+    }
+
+    public static <T> T[] toObjectArray(List<AttributeValue> values, Serializer<T> serializer, T[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = serializer.deserialize(values.get(i).m());
+        }
+        return array;
+    }
+
+    public static <E extends Enum<E>> E[] toEnumArray(List<String> values, Function<String, E> decoder, E[] array) {
+        for (int i = 0; i < array.length; i++) {
+            array[i] = decoder.apply(values.get(i));
+        }
+        return array;
+    }
+
+    public static <C extends Collection<Integer>> C addIntegers(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Integer.parseInt(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<Short>> C addShorts(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Short.parseShort(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<Long>> C addLongs(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Long.parseLong(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<Float>> C addFloats(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Numbers.parseFloat(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<Double>> C addDoubles(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Numbers.parseDouble(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<Byte>> C addBytes(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Byte.parseByte(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<BigDecimal>> C addBigDecimals(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Numbers.parseBigDecimal(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<BigInteger>> C addBigIntegers(List<String> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(Numbers.parseBigInteger(values.get(i)));
+        }
+        return target;
+    }
+
+    public static <C extends Collection<String>> C addStrings(List<String> values, C target) {
+        target.addAll(values);
+        return target;
+    }
+
+    public static <C extends Collection<Boolean>> C addBooleans(List<AttributeValue> values, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(values.get(i).bool());
+        }
+        return target;
+    }
+
+    public static <C extends Collection<Character>> C addCharacters(String value, C target) {
+        for (int i = 0; i < value.length(); i++) {
+            target.add(value.charAt(i));
+        }
+        return target;
+    }
+
+    public static <T, C extends Collection<T>> C addObjects(List<AttributeValue> values, Serializer<T> serializer,
+            C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(serializer.deserialize(values.get(i).m()));
+        }
+        return target;
+    }
+
+    public static <E extends Enum<E>, C extends Collection<E>> C addEnums(List<String> values,
+            Function<String, E> decoder, C target) {
+        for (int i = 0, size = values.size(); i < size; i++) {
+            target.add(decoder.apply(values.get(i)));
+        }
+        return target;
+    }
+
+    // The default branch of generated enum decoders, failing like Enum.valueOf does.
+    public static <E extends Enum<E>> E unknownEnum(Class<E> type, String value) {
+        throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + value);
+    }
+}
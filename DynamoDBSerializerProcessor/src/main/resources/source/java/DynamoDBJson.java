@@ -0,0 +1,544 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import javax.annotation.processing.Generated;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the DynamoDB JSON wire format, for example {@code {"id":{"S":"a"},"count":{"N":"3"}}}.
+ * Generated serializers use it to encode and decode their types directly, without an intermediate
+ * {@code Map<String, AttributeValue>}.
+ *
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public class DynamoDBJson {
+    private DynamoDBJson() {
+    }
+
+    public static void writeString(Appendable out, CharSequence value) throws IOException {
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.append(value, start, i);
+                switch (c) {
+                    case '"' -> out.append("\\\"");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    case '\t' -> out.append("\\t");
+                    default -> out.append(String.format("\\u%04x", (int) c));
+                }
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+        out.append('"');
+    }
+
+    public static void writeBinary(Appendable out, byte[] value) throws IOException {
+        out.append('"').append(Base64.getEncoder().encodeToString(value)).append('"');
+    }
+
+    public static void writeStrings(Appendable out, Collection<? extends CharSequence> values) throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (CharSequence value : values) {
+            if (!first) {
+                out.append(',');
+            }
+            writeString(out, value);
+            first = false;
+        }
+        out.append(']');
+    }
+
+    public static <T> void writeObjects(Appendable out, T[] values, Serializer<T> serializer) throws IOException {
+        out.append('[');
+        for (int i = 0; i < values.length; i++) {
+            out.append(i == 0 ? "{\"M\":" : ",{\"M\":");
+            serializer.writeJson(values[i], out);
+            out.append('}');
+        }
+        out.append(']');
+    }
+
+    public static <T> void writeObjects(Appendable out, Iterable<? extends T> values, Serializer<T> serializer)
+            throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (T value : values) {
+            out.append(first ? "{\"M\":" : ",{\"M\":");
+            serializer.writeJson(value, out);
+            out.append('}');
+            first = false;
+        }
+        out.append(']');
+    }
+
+    public static void writeValues(Appendable out, List<AttributeValue> values) throws IOException {
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeValue(out, values.get(i));
+        }
+        out.append(']');
+    }
+
+    public static void writeValue(Appendable out, AttributeValue value) throws IOException {
+        switch (value.type()) {
+            case S -> out.append("{\"S\":");
+            case N -> out.append("{\"N\":");
+            case B -> out.append("{\"B\":");
+            case SS -> out.append("{\"SS\":");
+            case NS -> out.append("{\"NS\":");
+            case BS -> out.append("{\"BS\":");
+            case M -> out.append("{\"M\":");
+            case L -> out.append("{\"L\":");
+            case BOOL -> out.append("{\"BOOL\":");
+            case NUL -> out.append("{\"NULL\":");
+            default -> throw new IllegalArgumentException("Unsupported attribute value type " + value.type());
+        }
+
+        switch (value.type()) {
+            case S -> writeString(out, value.s());
+            case N -> writeString(out, value.n());
+            case B -> writeBinary(out, value.b().asByteArrayUnsafe());
+            case SS -> writeStrings(out, value.ss());
+            case NS -> writeStrings(out, value.ns());
+            case BS -> {
+                out.append('[');
+                for (int i = 0; i < value.bs().size(); i++) {
+                    if (i > 0) {
+                        out.append(',');
+                    }
+                    writeBinary(out, value.bs().get(i).asByteArrayUnsafe());
+                }
+                out.append(']');
+            }
+            case M -> writeItem(out, value.m());
+            case L -> writeValues(out, value.l());
+            case BOOL -> out.append(value.bool() ? "true" : "false");
+            default -> out.append(value.nul() ? "true" : "false");
+        }
+        out.append('}');
+    }
+
+    public static void writeItem(Appendable out, Map<String, AttributeValue> item) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            writeString(out, entry.getKey());
+            out.append(':');
+            writeValue(out, entry.getValue());
+            first = false;
+        }
+        out.append('}');
+    }
+
+    public static Map<String, AttributeValue> readItem(CharSequence json) {
+        Reader reader = new Reader(json);
+        Map<String, AttributeValue> item = reader.readItem();
+        reader.endDocument();
+        return item;
+    }
+
+    /**
+     * A pull parser over DynamoDB JSON. Typed values such as {@code {"N":"3"}} are read with the {@code read*}
+     * methods, which return {@code null} for {@code {"NULL":true}} and for values of a different type, in the same
+     * way as the corresponding {@link AttributeValue} accessors.
+     */
+    public static class Reader {
+        private final CharSequence input;
+        private int position;
+        // Whether the innermost open object or array has not had a member yet, which is the only one without a
+        // leading comma.
+        private boolean first;
+
+        public Reader(CharSequence input) {
+            this.input = input;
+        }
+
+        public void beginObject() {
+            expect('{');
+            first = true;
+        }
+
+        public void endObject() {
+            expect('}');
+            first = false;
+        }
+
+        public void beginArray() {
+            expect('[');
+            first = true;
+        }
+
+        public void endArray() {
+            expect(']');
+            first = false;
+        }
+
+        public void endDocument() {
+            skipWhitespace();
+            if (position < input.length()) {
+                throw error("Unexpected content after the end of the document");
+            }
+        }
+
+        /**
+         * Returns whether the current object or array has another member, consuming the separating comma.
+         */
+        public boolean hasNext() {
+            char c = peek();
+            if (c == '}' || c == ']') {
+                return false;
+            }
+            if (first) {
+                first = false;
+                return true;
+            }
+            expect(',');
+            c = peek();
+            if (c == '}' || c == ']') {
+                throw error("Expected a value after ','");
+            }
+            return true;
+        }
+
+        public String nextName() {
+            String name = nextString();
+            expect(':');
+            return name;
+        }
+
+        public String nextString() {
+            expect('"');
+            int start = position;
+            while (position < input.length()) {
+                char c = input.charAt(position);
+                if (c == '"') {
+                    return input.subSequence(start, position++).toString();
+                }
+                if (c == '\\') {
+                    return nextEscapedString(start);
+                }
+                position++;
+            }
+            throw error("Unterminated string");
+        }
+
+        public boolean nextBoolean() {
+            skipWhitespace();
+            if (startsWith("true")) {
+                position += 4;
+                return true;
+            }
+            if (startsWith("false")) {
+                position += 5;
+                return false;
+            }
+            throw error("Expected a boolean");
+        }
+
+        public void skipValue() {
+            char c = peek();
+            switch (c) {
+                case '"' -> nextString();
+                case '{' -> {
+                    beginObject();
+                    while (hasNext()) {
+                        nextName();
+                        skipValue();
+                    }
+                    endObject();
+                }
+                case '[' -> {
+                    beginArray();
+                    while (hasNext()) {
+                        skipValue();
+                    }
+                    endArray();
+                }
+                default -> {
+                    while (position < input.length() && ",}] \t\r\n".indexOf(input.charAt(position)) < 0) {
+                        position++;
+                    }
+                }
+            }
+        }
+
+        public String readString(String type) {
+            String result = null;
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals(type)) {
+                    result = nextString();
+                } else {
+                    skipValue();
+                }
+            }
+            endObject();
+            return result;
+        }
+
+        public Boolean readBool() {
+            Boolean result = null;
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals("BOOL")) {
+                    result = nextBoolean();
+                } else {
+                    skipValue();
+                }
+            }
+            endObject();
+            return result;
+        }
+
+        public SdkBytes readBinary() {
+            SdkBytes result = null;
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals("B")) {
+                    result = SdkBytes.fromByteArrayUnsafe(Base64.getDecoder().decode(nextString()));
+                } else {
+                    skipValue();
+                }
+            }
+            endObject();
+            return result;
+        }
+
+        public List<String> readStrings(String type) {
+            List<String> result = null;
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals(type)) {
+                    result = new ArrayList<>();
+                    beginArray();
+                    while (hasNext()) {
+                        result.add(nextString());
+                    }
+                    endArray();
+                } else {
+                    skipValue();
+                }
+            }
+            endObject();
+            return result;
+        }
+
+        public <T> T readObject(Serializer<T> serializer) {
+            T result = null;
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals("M")) {
+                    result = serializer.readJson(this);
+                } else {
+                    skipValue();
+                }
+            }
+            endObject();
+            return result;
+        }
+
+        public <T, C extends Collection<T>> C readObjects(Serializer<T> serializer, C target) {
+            C result = null;
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals("L")) {
+                    result = target;
+                    beginArray();
+                    while (hasNext()) {
+                        target.add(readObject(serializer));
+                    }
+                    endArray();
+                } else {
+                    skipValue();
+                }
+            }
+            endObject();
+            return result;
+        }
+
+        public List<AttributeValue> readList() {
+            List<AttributeValue> result = null;
+            beginObject();
+            while (hasNext()) {
+                if (nextName().equals("L")) {
+                    result = readValues();
+                } else {
+                    skipValue();
+                }
+            }
+            endObject();
+            return result;
+        }
+
+        public Map<String, AttributeValue> readItem() {
+            Map<String, AttributeValue> item = new HashMap<>();
+            beginObject();
+            while (hasNext()) {
+                String name = nextName();
+                item.put(name, readAttributeValue());
+            }
+            endObject();
+            return item;
+        }
+
+        public AttributeValue readAttributeValue() {
+            AttributeValue result = null;
+            beginObject();
+            while (hasNext()) {
+                String type = nextName();
+                result = switch (type) {
+                    case "S" -> AttributeValue.fromS(nextString());
+                    case "N" -> AttributeValue.fromN(nextString());
+                    case "B" -> AttributeValue.fromB(SdkBytes.fromByteArrayUnsafe(
+                            Base64.getDecoder().decode(nextString())));
+                    case "SS" -> AttributeValue.fromSs(nextStrings());
+                    case "NS" -> AttributeValue.fromNs(nextStrings());
+                    case "BS" -> {
+                        List<SdkBytes> values = new ArrayList<>();
+                        for (String value : nextStrings()) {
+                            values.add(SdkBytes.fromByteArrayUnsafe(Base64.getDecoder().decode(value)));
+                        }
+                        yield AttributeValue.fromBs(values);
+                    }
+                    case "M" -> AttributeValue.fromM(readItem());
+                    case "L" -> AttributeValue.fromL(readValues());
+                    case "BOOL" -> AttributeValue.fromBool(nextBoolean());
+                    case "NULL" -> AttributeValue.fromNul(nextBoolean());
+                    default -> throw error("Unknown attribute value type " + type);
+                };
+            }
+            endObject();
+            return result;
+        }
+
+        private List<String> nextStrings() {
+            List<String> values = new ArrayList<>();
+            beginArray();
+            while (hasNext()) {
+                values.add(nextString());
+            }
+            endArray();
+            return values;
+        }
+
+        private List<AttributeValue> readValues() {
+            List<AttributeValue> values = new ArrayList<>();
+            beginArray();
+            while (hasNext()) {
+                values.add(readAttributeValue());
+            }
+            endArray();
+            return values;
+        }
+
+        private String nextEscapedString(int start) {
+            StringBuilder builder = new StringBuilder().append(input, start, position);
+            while (position < input.length()) {
+                char c = input.charAt(position++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                if (position >= input.length()) {
+                    break;
+                }
+                char escaped = input.charAt(position++);
+                switch (escaped) {
+                    case 'b' -> builder.append('\b');
+                    case 'f' -> builder.append('\f');
+                    case 'n' -> builder.append('\n');
+                    case 'r' -> builder.append('\r');
+                    case 't' -> builder.append('\t');
+                    case 'u' -> {
+                        if (position + 4 > input.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        builder.append((char) Integer.parseInt(input, position, position + 4, 16));
+                        position += 4;
+                    }
+                    default -> builder.append(escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private boolean startsWith(String literal) {
+            if (position + literal.length() > input.length()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (input.charAt(position + i) != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+            position++;
+        }
+
+        private char peek() {
+            skipWhitespace();
+            if (position >= input.length()) {
+                throw error("Unexpected end of input");
+            }
+            return input.charAt(position);
+        }
+
+        private void skipWhitespace() {
+            while (position < input.length()) {
+                char c = input.charAt(position);
+                if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position);
+        }
+    }
+}
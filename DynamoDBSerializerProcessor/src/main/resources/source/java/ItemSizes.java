@@ -0,0 +1,227 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import javax.annotation.processing.Generated;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Sizes of items as DynamoDB counts them against its limits and for billing, and the capacity units they
+ * consume.
+ *
+ * <p>An item's size is the UTF-8 length of each attribute name plus the size of its value. Strings count their
+ * UTF-8 length, binaries their length and numbers one byte plus one byte per two significant digits; maps and
+ * lists add 3 bytes plus one byte per element. Generated serializers compute the size of an object directly
+ * from its fields with {@link Serializer#estimateSize(Object)}:
+ * </p>
+ *
+ * <pre>
+ * long size = MyDataTypeSerializer.create().estimateSize(myData);
+ * if (size &gt; ItemSizes.MAX_ITEM_BYTES) {
+ *     throw new IllegalArgumentException("Item too large: " + size);
+ * }
+ * long writeUnits = ItemSizes.writeCapacityUnits(size);
+ * </pre>
+ *
+ * @see Serializer
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public final class ItemSizes {
+    /**
+     * The largest item DynamoDB stores, 400 KB.
+     */
+    public static final long MAX_ITEM_BYTES = 400L * 1024;
+
+    private static final long READ_UNIT_BYTES = 4096;
+    private static final long WRITE_UNIT_BYTES = 1024;
+
+    private ItemSizes() {
+    }
+
+    /**
+     * Returns the size of an item.
+     *
+     * @param item the attributes of the item
+     * @return the size of the item in bytes
+     */
+    public static long itemSize(Map<String, AttributeValue> item) {
+        long size = 0;
+        for (Map.Entry<String, AttributeValue> entry : item.entrySet()) {
+            size += utf8Length(entry.getKey()) + valueSize(entry.getValue());
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of an attribute value, not counting its name.
+     *
+     * @param value the attribute value
+     * @return the size of the value in bytes
+     */
+    public static long valueSize(AttributeValue value) {
+        return switch (value.type()) {
+            case S -> utf8Length(value.s());
+            case N -> numberSize(value.n());
+            case B -> value.b().asByteBuffer().remaining();
+            case SS -> stringsSize(value.ss());
+            case NS -> numbersSize(value.ns());
+            case BS -> value.bs().stream().mapToLong(bytes -> bytes.asByteBuffer().remaining()).sum();
+            case M -> 3 + value.m().size() + itemSize(value.m());
+            case L -> 3 + value.l().size() + value.l().stream().mapToLong(ItemSizes::valueSize).sum();
+            default -> 1;
+        };
+    }
+
+    /**
+     * Returns the size of a number attribute holding the given integer.
+     *
+     * @param value the number
+     * @return the size of the number in bytes
+     */
+    public static long numberSize(long value) {
+        if (value == 0) {
+            return 2;
+        }
+
+        // Trailing zeros are not significant.
+        while (value % 10 == 0) {
+            value /= 10;
+        }
+        int digits = 0;
+        while (value != 0) {
+            digits++;
+            value /= 10;
+        }
+        return 1 + (digits + 1) / 2;
+    }
+
+    /**
+     * Returns the size of a number attribute holding the given string, such as {@code 12.50} or {@code 1E+3}.
+     *
+     * @param value the string form of the number
+     * @return the size of the number in bytes
+     */
+    public static long numberSize(String value) {
+        int digits = 0;
+        int trailingZeros = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == 'e' || c == 'E') {
+                break;
+            } else if (c == '0') {
+                // Leading zeros are not significant either.
+                if (digits > 0) {
+                    digits++;
+                    trailingZeros++;
+                }
+            } else if (c >= '1' && c <= '9') {
+                digits++;
+                trailingZeros = 0;
+            }
+        }
+        return 1 + (Math.max(digits - trailingZeros, 1) + 1) / 2;
+    }
+
+    /**
+     * Returns the size of a string set, or of a list of strings stored as one.
+     *
+     * @param values the strings
+     * @return the size of the set in bytes
+     */
+    public static long stringsSize(Collection<? extends CharSequence> values) {
+        long size = 0;
+        for (CharSequence value : values) {
+            size += utf8Length(value);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of a number set.
+     *
+     * @param values the string forms of the numbers
+     * @return the size of the set in bytes
+     */
+    public static long numbersSize(Collection<String> values) {
+        long size = 0;
+        for (String value : values) {
+            size += numberSize(value);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of a list attribute of serialized objects.
+     *
+     * @param values the objects
+     * @param serializer the serializer of the objects
+     * @return the size of the list in bytes
+     * @param <T> the type of the objects
+     */
+    public static <T> long objectsSize(Collection<? extends T> values, Serializer<T> serializer) {
+        long size = 3 + values.size();
+        for (T value : values) {
+            size += serializer.estimateNestedSize(value);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of a string.
+     *
+     * @param value the string
+     * @return the encoded length
+     */
+    public static long utf8Length(CharSequence value) {
+        long length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                // Surrogate pairs take 4 bytes, 2 per char; other chars from U+0800 take 3.
+                length += Character.isSurrogate(c) ? 1 : 2;
+            } else if (c >= 0x80) {
+                length += 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the read capacity units consumed by reading an item: one per 4 KB for a strongly consistent read,
+     * half as many for an eventually consistent one.
+     *
+     * @param itemSize the size of the item in bytes
+     * @param consistentRead whether the read is strongly consistent
+     * @return the read capacity units
+     */
+    public static double readCapacityUnits(long itemSize, boolean consistentRead) {
+        long units = Math.max(1, (itemSize + READ_UNIT_BYTES - 1) / READ_UNIT_BYTES);
+        return consistentRead ? units : units / 2.0;
+    }
+
+    /**
+     * Returns the write capacity units consumed by writing an item: one per 1 KB.
+     *
+     * @param itemSize the size of the item in bytes
+     * @return the write capacity units
+     */
+    public static long writeCapacityUnits(long itemSize) {
+        return Math.max(1, (itemSize + WRITE_UNIT_BYTES - 1) / WRITE_UNIT_BYTES);
+    }
+}
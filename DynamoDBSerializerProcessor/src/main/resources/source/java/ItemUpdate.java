@@ -0,0 +1,196 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import javax.annotation.processing.Generated;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parts of an {@code UpdateItem} request that change some attributes of an item: the
+ * update expression and the attribute names and values it references.
+ *
+ * @param updateExpression the update expression, empty if nothing changes
+ * @param expressionAttributeNames the attribute names referenced by the expression
+ * @param expressionAttributeValues the attribute values referenced by the expression
+ *
+ * @see Serializer#diff(Object, Object)
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public record ItemUpdate(String updateExpression, Map<String, String> expressionAttributeNames,
+                         Map<String, AttributeValue> expressionAttributeValues) {
+
+    /**
+     * Returns whether the update changes nothing, in which case no request needs to be sent.
+     *
+     * @return {@code true} if the update expression is empty
+     */
+    public boolean isEmpty() {
+        return updateExpression.isEmpty();
+    }
+
+    /**
+     * Sets the update expression, attribute names and attribute values on the given request builder.
+     * The attribute values are left unset when the expression does not reference any, as DynamoDB
+     * rejects an empty map.
+     *
+     * @param request the request builder to update
+     * @return the given request builder
+     */
+    public UpdateItemRequest.Builder applyTo(UpdateItemRequest.Builder request) {
+        request.updateExpression(updateExpression).expressionAttributeNames(expressionAttributeNames);
+        if (!expressionAttributeValues.isEmpty()) {
+            request.expressionAttributeValues(expressionAttributeValues);
+        }
+        return request;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects the clauses of an update expression. Attribute names and values are referenced through
+     * placeholders, so that reserved words and any attribute name can be updated.
+     */
+    public static final class Builder {
+        private final StringBuilder set = new StringBuilder();
+        private final StringBuilder remove = new StringBuilder();
+        private final StringBuilder add = new StringBuilder();
+        private final StringBuilder delete = new StringBuilder();
+        private final Map<String, String> names = new HashMap<>();
+        private final Map<String, AttributeValue> values = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the attribute to the given value.
+         *
+         * @param attribute the attribute name
+         * @param value the new value
+         * @return this builder
+         */
+        public Builder set(String attribute, AttributeValue value) {
+            append(set, name(attribute) + " = " + value(value));
+            return this;
+        }
+
+        /**
+         * Removes the attribute from the item.
+         *
+         * @param attribute the attribute name
+         * @return this builder
+         */
+        public Builder remove(String attribute) {
+            append(remove, name(attribute));
+            return this;
+        }
+
+        /**
+         * Atomically adds the given number to a numeric attribute, or the given elements to a set attribute.
+         * A missing attribute is treated as zero or as an empty set.
+         *
+         * @param attribute the attribute name
+         * @param value a number, or a non-empty string or number set
+         * @return this builder
+         */
+        public Builder add(String attribute, AttributeValue value) {
+            if (!isEmptySet(value)) {
+                append(add, name(attribute) + " " + value(value));
+            }
+            return this;
+        }
+
+        /**
+         * Atomically removes the given elements from a set attribute.
+         *
+         * @param attribute the attribute name
+         * @param value a non-empty string or number set
+         * @return this builder
+         */
+        public Builder delete(String attribute, AttributeValue value) {
+            if (!isEmptySet(value)) {
+                append(delete, name(attribute) + " " + value(value));
+            }
+            return this;
+        }
+
+        /**
+         * Atomically appends the given elements to a list attribute. A missing attribute is treated as an
+         * empty list.
+         *
+         * @param attribute the attribute name
+         * @param value a list
+         * @return this builder
+         */
+        public Builder append(String attribute, AttributeValue value) {
+            String name = name(attribute);
+            append(set, name + " = list_append(if_not_exists(" + name + ", " +
+                    value(AttributeValue.fromL(List.of())) + "), " + value(value) + ")");
+            return this;
+        }
+
+        public ItemUpdate build() {
+            StringBuilder expression = new StringBuilder();
+            appendClause(expression, "SET ", set);
+            appendClause(expression, "REMOVE ", remove);
+            appendClause(expression, "ADD ", add);
+            appendClause(expression, "DELETE ", delete);
+
+            return new ItemUpdate(expression.toString(), Collections.unmodifiableMap(names),
+                    Collections.unmodifiableMap(values));
+        }
+
+        private String name(String attribute) {
+            String placeholder = "#n" + names.size();
+            names.put(placeholder, attribute);
+            return placeholder;
+        }
+
+        private String value(AttributeValue value) {
+            String placeholder = ":v" + values.size();
+            values.put(placeholder, value);
+            return placeholder;
+        }
+
+        // DynamoDB rejects empty sets, and adding or deleting no elements changes nothing.
+        private static boolean isEmptySet(AttributeValue value) {
+            return (value.hasSs() && value.ss().isEmpty()) || (value.hasNs() && value.ns().isEmpty());
+        }
+
+        private static void append(StringBuilder clause, String action) {
+            if (!clause.isEmpty()) {
+                clause.append(", ");
+            }
+            clause.append(action);
+        }
+
+        private static void appendClause(StringBuilder expression, String keyword, StringBuilder clause) {
+            if (!clause.isEmpty()) {
+                if (!expression.isEmpty()) {
+                    expression.append(' ');
+                }
+                expression.append(keyword).append(clause);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import javax.annotation.processing.Generated;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+// String forms of N attributes. The strings of small integers are cached, decimals of fields annotated with @Scale
+// are formatted with long arithmetic, and short decimals are parsed without the allocations of the general
+// floating-point and BigDecimal parsers.
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public class Numbers {
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final String[] CACHE = new String[CACHE_HIGH - CACHE_LOW + 1];
+
+    // Powers of ten that are exact as doubles and floats respectively.
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    // Below these magnitudes every integer is exact as a double and as a float.
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final long MAX_EXACT_FLOAT = 1L << 24;
+
+    // The digits of a simple decimal must leave room for the 5 bits of its number of fraction digits.
+    private static final long MAX_UNSCALED = 100_000_000_000_000_000L;
+    private static final int MAX_SCALE = 31;
+
+    private static final long NOT_SIMPLE = Long.MIN_VALUE;
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = Integer.toString(i + CACHE_LOW);
+        }
+    }
+
+    private Numbers() {
+    }
+
+    public static String toString(int value) {
+        return value >= CACHE_LOW && value <= CACHE_HIGH ? CACHE[value - CACHE_LOW] : Integer.toString(value);
+    }
+
+    public static String toString(long value) {
+        return value >= CACHE_LOW && value <= CACHE_HIGH ? CACHE[(int) value - CACHE_LOW] : Long.toString(value);
+    }
+
+    // The string of an element of a collection or an object array of numbers.
+    public static String valueOf(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return toString(((Number) value).intValue());
+        } else if (value instanceof Long longValue) {
+            return toString((long) longValue);
+        }
+        return String.valueOf(value);
+    }
+
+    // Rounds the value to the given number of fraction digits, dropping trailing zeros. Values too large to be
+    // scaled exactly fall back to their shortest representation.
+    public static String toString(double value, int scale) {
+        double scaled = value * DOUBLE_POWERS[scale];
+        if (!(Math.abs(scaled) < MAX_EXACT_DOUBLE)) {
+            return Double.toString(value);
+        }
+
+        long unscaled = Math.round(scaled);
+        while (scale > 0 && unscaled % 10 == 0) {
+            unscaled /= 10;
+            scale--;
+        }
+        if (scale == 0) {
+            return toString(unscaled);
+        }
+
+        // At most 16 digits, a sign, a point and a leading zero.
+        char[] chars = new char[20];
+        int position = chars.length;
+        long remaining = Math.abs(unscaled);
+        for (int i = 0; i < scale; i++) {
+            chars[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        chars[--position] = '.';
+        do {
+            chars[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (unscaled < 0) {
+            chars[--position] = '-';
+        }
+        return new String(chars, position, chars.length - position);
+    }
+
+    // Dividing an exact integer by an exact power of ten rounds once, to the same value the general parser returns.
+    public static double parseDouble(String value) {
+        long decimal = simpleDecimal(value, MAX_EXACT_DOUBLE, DOUBLE_POWERS.length - 1);
+        if (decimal == NOT_SIMPLE) {
+            return Double.parseDouble(value);
+        }
+        return (decimal >> 5) / DOUBLE_POWERS[(int) (decimal & 31)];
+    }
+
+    public static float parseFloat(String value) {
+        long decimal = simpleDecimal(value, MAX_EXACT_FLOAT, FLOAT_POWERS.length - 1);
+        if (decimal == NOT_SIMPLE) {
+            return Float.parseFloat(value);
+        }
+        return (decimal >> 5) / FLOAT_POWERS[(int) (decimal & 31)];
+    }
+
+    public static BigDecimal parseBigDecimal(String value) {
+        long decimal = simpleDecimal(value, MAX_UNSCALED, MAX_SCALE);
+        if (decimal == NOT_SIMPLE) {
+            return new BigDecimal(value);
+        }
+        return BigDecimal.valueOf(decimal >> 5, (int) (decimal & 31));
+    }
+
+    public static BigInteger parseBigInteger(String value) {
+        long decimal = simpleDecimal(value, MAX_UNSCALED, 0);
+        if (decimal == NOT_SIMPLE) {
+            return new BigInteger(value);
+        }
+        return BigInteger.valueOf(decimal >> 5);
+    }
+
+    // Reads an optionally negative decimal without an exponent, such as -12.75, whose digits form an integer below
+    // the given bound. Returns that integer shifted left by 5 bits with the number of fraction digits in the low
+    // bits, or NOT_SIMPLE if the value has another form.
+    private static long simpleDecimal(String value, long maxUnscaled, int maxFractionDigits) {
+        int length = value.length();
+        int i = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        if (i == length) {
+            return NOT_SIMPLE;
+        }
+
+        long unscaled = 0;
+        int fractionDigits = -1;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                unscaled = unscaled * 10 + (c - '0');
+                if (unscaled >= maxUnscaled) {
+                    return NOT_SIMPLE;
+                }
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return NOT_SIMPLE;
+            }
+        }
+
+        boolean negative = value.charAt(0) == '-';
+        // Negative zero keeps its sign only through the general parser.
+        if (fractionDigits > maxFractionDigits || value.charAt(length - 1) == '.' || negative && unscaled == 0) {
+            return NOT_SIMPLE;
+        }
+        return (negative ? -unscaled : unscaled) << 5 | Math.max(fractionDigits, 0);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import javax.annotation.processing.Generated;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+// Binary forms of primitive arrays for fields annotated with @Packed. Fixed-width arrays are little-endian and are
+// copied in bulk through typed buffer views; delta arrays are zigzag-encoded varints of the difference to the
+// previous element.
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public class PackedArrays {
+    private PackedArrays() {
+    }
+
+    public static byte[] pack(int[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(values);
+        return buffer.array();
+    }
+
+    public static byte[] pack(long[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asLongBuffer().put(values);
+        return buffer.array();
+    }
+
+    public static byte[] pack(double[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(values);
+        return buffer.array();
+    }
+
+    public static byte[] pack(float[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(values);
+        return buffer.array();
+    }
+
+    public static byte[] pack(short[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asShortBuffer().put(values);
+        return buffer.array();
+    }
+
+    public static int[] unpackInts(ByteBuffer buffer) {
+        checkWidth(buffer, Integer.BYTES);
+        IntBuffer view = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] values = new int[view.remaining()];
+        view.get(values);
+        return values;
+    }
+
+    public static long[] unpackLongs(ByteBuffer buffer) {
+        checkWidth(buffer, Long.BYTES);
+        LongBuffer view = buffer.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        long[] values = new long[view.remaining()];
+        view.get(values);
+        return values;
+    }
+
+    public static double[] unpackDoubles(ByteBuffer buffer) {
+        checkWidth(buffer, Double.BYTES);
+        DoubleBuffer view = buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        double[] values = new double[view.remaining()];
+        view.get(values);
+        return values;
+    }
+
+    public static float[] unpackFloats(ByteBuffer buffer) {
+        checkWidth(buffer, Float.BYTES);
+        FloatBuffer view = buffer.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        float[] values = new float[view.remaining()];
+        view.get(values);
+        return values;
+    }
+
+    public static short[] unpackShorts(ByteBuffer buffer) {
+        checkWidth(buffer, Short.BYTES);
+        ShortBuffer view = buffer.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+        short[] values = new short[view.remaining()];
+        view.get(values);
+        return values;
+    }
+
+    // Both delta encoders size the output in a first pass so that the encoded array is allocated exactly once.
+    public static byte[] packDeltas(int[] values) {
+        int size = 0;
+        int previous = 0;
+        for (int value : values) {
+            size += varintSize(zigzag(value - previous));
+            previous = value;
+        }
+
+        byte[] bytes = new byte[size];
+        int position = 0;
+        previous = 0;
+        for (int value : values) {
+            position = writeVarint(bytes, position, zigzag(value - previous));
+            previous = value;
+        }
+        return bytes;
+    }
+
+    public static byte[] packDeltas(long[] values) {
+        int size = 0;
+        long previous = 0;
+        for (long value : values) {
+            size += varintSize(zigzag(value - previous));
+            previous = value;
+        }
+
+        byte[] bytes = new byte[size];
+        int position = 0;
+        previous = 0;
+        for (long value : values) {
+            position = writeVarint(bytes, position, zigzag(value - previous));
+            previous = value;
+        }
+        return bytes;
+    }
+
+    public static int[] unpackIntDeltas(ByteBuffer buffer) {
+        int[] values = new int[countVarints(buffer)];
+        int previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            long zigzag = readVarint(buffer);
+            previous += (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    public static long[] unpackLongDeltas(ByteBuffer buffer) {
+        long[] values = new long[countVarints(buffer)];
+        long previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            long zigzag = readVarint(buffer);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    // A length that is not a multiple of the element width means the attribute is corrupt or of another type.
+    private static void checkWidth(ByteBuffer buffer, int width) {
+        if (buffer.remaining() % width != 0) {
+            throw new IllegalArgumentException("A packed array of " + width + "-byte elements cannot be " +
+                    buffer.remaining() + " bytes long");
+        }
+    }
+
+    private static long zigzag(int delta) {
+        return Integer.toUnsignedLong((delta << 1) ^ (delta >> 31));
+    }
+
+    private static long zigzag(long delta) {
+        return (delta << 1) ^ (delta >> 63);
+    }
+
+    private static int writeVarint(byte[] bytes, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int countVarints(ByteBuffer buffer) {
+        int count = 0;
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if ((buffer.get(i) & 0x80) == 0) {
+                count++;
+            }
+        }
+        // Every varint ends with a byte without the continuation bit, so the last byte must be one.
+        if (buffer.hasRemaining() && (buffer.get(buffer.limit() - 1) & 0x80) != 0) {
+            throw new IllegalArgumentException("A packed delta array ends with a truncated varint");
+        }
+        return count;
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return value;
+    }
+}
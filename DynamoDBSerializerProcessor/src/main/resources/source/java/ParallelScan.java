@@ -0,0 +1,359 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import javax.annotation.processing.Generated;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scans a table with several segments at the same time and deserializes the items of each page.
+ *
+ * <p>Each segment is scanned on its own virtual thread. The items are either passed to a consumer on the
+ * segment's thread with {@link #forEach(Consumer)}, or merged into a single stream with {@link #stream()}.
+ * </p>
+ *
+ * <p>With {@link Builder#checkpoints(Checkpoints)}, the last evaluated key of each segment is saved once
+ * the items of a page have been consumed, and a scan started with the same checkpoints resumes every
+ * segment after its last saved page. Items of a page that was being consumed when a job stopped are
+ * delivered again.
+ * </p>
+ *
+ * <pre>
+ * ParallelScan&lt;MyDataType&gt; scan = ParallelScan.builder(client,
+ *                 ScanRequest.builder().tableName("my-table").build(), MyDataTypeSerializer.create())
+ *         .totalSegments(32)
+ *         .build();
+ * scan.forEach(myData -&gt; reindex(myData));
+ * </pre>
+ *
+ * @param <T> the type of the scanned objects
+ *
+ * @see Serializer
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public final class ParallelScan<T> {
+    private final DynamoDbClient client;
+    private final ScanRequest request;
+    private final Serializer<T> serializer;
+    private final int totalSegments;
+    private final Checkpoints checkpoints;
+
+    private ParallelScan(Builder<T> builder) {
+        this.client = builder.client;
+        this.request = builder.request;
+        this.serializer = builder.serializer;
+        this.totalSegments = builder.totalSegments;
+        this.checkpoints = builder.checkpoints;
+    }
+
+    /**
+     * Creates a builder for a scan of the given request. The request's segment, total segments and
+     * exclusive start key are replaced; everything else, such as the filter and projection, is kept.
+     *
+     * @param client the client that sends the requests
+     * @param request the scan request of every segment
+     * @param serializer the serializer of the scanned items
+     * @return a builder of the scan
+     * @param <T> the type of the scanned objects
+     */
+    public static <T> Builder<T> builder(DynamoDbClient client, ScanRequest request, Serializer<T> serializer) {
+        return new Builder<>(client, request, serializer);
+    }
+
+    /**
+     * Scans all segments and passes every item to the action, returning once all segments are complete.
+     * The action is called concurrently from the threads of the segments. When a segment fails, the other
+     * segments stop after their current page, and the failure is rethrown.
+     *
+     * @param action the action to perform on each object
+     */
+    public void forEach(Consumer<? super T> action) {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int segment = 0; segment < totalSegments; segment++) {
+                Map<String, AttributeValue> startKey = checkpoints.load(segment);
+                if (startKey != null && startKey.isEmpty()) {
+                    continue;
+                }
+
+                int currentSegment = segment;
+                executor.execute(() -> {
+                    try {
+                        scanSegment(currentSegment, startKey, page -> {
+                            if (failure.get() != null) {
+                                return false;
+                            }
+                            page.items().forEach(action);
+                            checkpoints.save(currentSegment, page.lastEvaluatedKey());
+                            return true;
+                        });
+                    } catch (RuntimeException ex) {
+                        failure.compareAndSet(null, ex);
+                    }
+                });
+            }
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Scans all segments into a single stream. The segments are scanned ahead of the stream's consumer by
+     * at most two pages each, and the checkpoint of a page is saved once the stream has moved past its last
+     * item. Closing the stream stops the scan.
+     *
+     * @return the stream of the scanned objects, in no particular order
+     */
+    public Stream<T> stream() {
+        MergedPages pages = new MergedPages();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages,
+                Spliterator.NONNULL), false).onClose(pages::close);
+    }
+
+    private void scanSegment(int segment, Map<String, AttributeValue> startKey, PageHandler<T> handler) {
+        Map<String, AttributeValue> exclusiveStartKey = startKey;
+
+        do {
+            ScanResponse response = client.scan(request.toBuilder()
+                    .segment(segment)
+                    .totalSegments(totalSegments)
+                    .exclusiveStartKey(exclusiveStartKey)
+                    .build());
+
+            // A missing last evaluated key means the segment is complete, which is saved as an empty key.
+            Map<String, AttributeValue> lastEvaluatedKey = response.hasLastEvaluatedKey() ?
+                    response.lastEvaluatedKey() : Map.of();
+            Page<T> page = new Page<>(segment, serializer.deserializeAll(response.items()), lastEvaluatedKey, null);
+            if (!handler.handle(page)) {
+                return;
+            }
+
+            exclusiveStartKey = lastEvaluatedKey;
+        } while (!exclusiveStartKey.isEmpty());
+    }
+
+    private interface PageHandler<T> {
+        boolean handle(Page<T> page);
+    }
+
+    private record Page<T>(int segment, List<T> items, Map<String, AttributeValue> lastEvaluatedKey,
+                           RuntimeException failure) {
+    }
+
+    // Merges the pages of all segments through a queue that holds at most one page per segment: a segment
+    // waits for its queued page to be taken before queueing the next, which it has scanned in the meantime.
+    private final class MergedPages implements Iterator<T> {
+        private final BlockingQueue<Page<T>> queue = new ArrayBlockingQueue<>(totalSegments);
+        private final Semaphore[] queued = new Semaphore[totalSegments];
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private Iterator<T> items = Collections.emptyIterator();
+        private Page<T> current;
+        private int remainingSegments;
+
+        MergedPages() {
+            for (int segment = 0; segment < totalSegments; segment++) {
+                queued[segment] = new Semaphore(1);
+                Map<String, AttributeValue> startKey = checkpoints.load(segment);
+                if (startKey != null && startKey.isEmpty()) {
+                    continue;
+                }
+
+                remainingSegments++;
+                int currentSegment = segment;
+                executor.execute(() -> {
+                    try {
+                        scanSegment(currentSegment, startKey, page -> {
+                            put(page);
+                            return true;
+                        });
+                    } catch (RuntimeException ex) {
+                        if (!Thread.currentThread().isInterrupted()) {
+                            put(new Page<>(currentSegment, List.of(), Map.of(), ex));
+                        }
+                    }
+                });
+            }
+        }
+
+        private void put(Page<T> page) {
+            try {
+                queued[page.segment()].acquire();
+                queue.put(page);
+            } catch (InterruptedException ex) {
+                // The stream was closed.
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Scan of segment " + page.segment() + " was cancelled", ex);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!items.hasNext()) {
+                if (current != null) {
+                    checkpoints.save(current.segment(), current.lastEvaluatedKey());
+                    if (current.lastEvaluatedKey().isEmpty()) {
+                        remainingSegments--;
+                    }
+                    current = null;
+                }
+
+                if (remainingSegments == 0) {
+                    executor.close();
+                    return false;
+                }
+
+                Page<T> page = take();
+                if (page.failure() != null) {
+                    close();
+                    throw page.failure();
+                }
+
+                current = page;
+                items = page.items().iterator();
+            }
+
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return items.next();
+        }
+
+        private Page<T> take() {
+            try {
+                Page<T> page = queue.take();
+                queued[page.segment()].release();
+                return page;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for scanned items", ex);
+            }
+        }
+
+        void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Stores the position of each segment of a scan. A job that saves its checkpoints in a durable store
+     * can be restarted after a failure, with the same total number of segments, and only scans what is left.
+     */
+    public interface Checkpoints {
+        /**
+         * Returns the last evaluated key saved for the segment.
+         *
+         * @param segment the segment number
+         * @return {@code null} to scan the segment from its start, the key to resume after, or an empty map
+         *         if the segment is complete
+         */
+        Map<String, AttributeValue> load(int segment);
+
+        /**
+         * Saves the last evaluated key of a page whose items have been consumed.
+         *
+         * @param segment the segment number
+         * @param lastEvaluatedKey the key to resume after, or an empty map once the segment is complete
+         */
+        void save(int segment, Map<String, AttributeValue> lastEvaluatedKey);
+    }
+
+    /**
+     * Configures a {@link ParallelScan}.
+     */
+    public static final class Builder<T> {
+        private static final Checkpoints NO_CHECKPOINTS = new Checkpoints() {
+            @Override
+            public Map<String, AttributeValue> load(int segment) {
+                return null;
+            }
+
+            @Override
+            public void save(int segment, Map<String, AttributeValue> lastEvaluatedKey) {
+            }
+        };
+
+        private final DynamoDbClient client;
+        private final ScanRequest request;
+        private final Serializer<T> serializer;
+        private int totalSegments = Runtime.getRuntime().availableProcessors();
+        private Checkpoints checkpoints = NO_CHECKPOINTS;
+
+        private Builder(DynamoDbClient client, ScanRequest request, Serializer<T> serializer) {
+            this.client = client;
+            this.request = request;
+            this.serializer = serializer;
+        }
+
+        /**
+         * Sets the number of segments, which are all scanned at the same time. Defaults to the number of
+         * available processors.
+         *
+         * @param totalSegments the number of segments, from 1 to 1,000,000
+         * @return this builder
+         */
+        public Builder<T> totalSegments(int totalSegments) {
+            if (totalSegments < 1 || totalSegments > 1_000_000) {
+                throw new IllegalArgumentException("totalSegments must be from 1 to 1000000: " + totalSegments);
+            }
+            this.totalSegments = totalSegments;
+            return this;
+        }
+
+        /**
+         * Sets where the position of each segment is loaded from and saved to.
+         *
+         * @param checkpoints the checkpoint store
+         * @return this builder
+         */
+        public Builder<T> checkpoints(Checkpoints checkpoints) {
+            this.checkpoints = checkpoints;
+            return this;
+        }
+
+        public ParallelScan<T> build() {
+            return new ParallelScan<>(this);
+        }
+    }
+}
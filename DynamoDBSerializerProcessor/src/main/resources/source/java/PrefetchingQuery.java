@@ -0,0 +1,242 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import javax.annotation.processing.Generated;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a query whose next pages are requested while the items of the current page are deserialized.
+ *
+ * <p>A virtual thread sends the requests, following the last evaluated key, and keeps up to
+ * {@link Builder#prefetch(int)} pages ahead of the consumer. The items are deserialized one at a time on the
+ * consumer's thread as it iterates, so the network and the decoding overlap.
+ * </p>
+ *
+ * <pre>
+ * try (Stream&lt;MyDataType&gt; results = PrefetchingQuery.builder(client, request, MyDataTypeSerializer.create())
+ *         .build()
+ *         .stream()) {
+ *     results.forEach(myData -&gt; process(myData));
+ * }
+ * </pre>
+ *
+ * @param <T> the type of the queried objects
+ *
+ * @see Serializer
+ * @author Mina Rofaeil
+ */
+@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
+public final class PrefetchingQuery<T> {
+    private final DynamoDbClient client;
+    private final QueryRequest request;
+    private final Serializer<T> serializer;
+    private final int prefetch;
+
+    private PrefetchingQuery(Builder<T> builder) {
+        this.client = builder.client;
+        this.request = builder.request;
+        this.serializer = builder.serializer;
+        this.prefetch = builder.prefetch;
+    }
+
+    /**
+     * Creates a builder for the given query. The query starts at the request's exclusive start key, if any.
+     *
+     * @param client the client that sends the requests
+     * @param request the request of the first page
+     * @param serializer the serializer of the queried items
+     * @return a builder of the query
+     * @param <T> the type of the queried objects
+     */
+    public static <T> Builder<T> builder(DynamoDbClient client, QueryRequest request, Serializer<T> serializer) {
+        return new Builder<>(client, request, serializer);
+    }
+
+    /**
+     * Runs the query. The first request is sent on the first call to {@code hasNext} or {@code next}.
+     *
+     * @return the results, which should be closed if they are not iterated to the end
+     */
+    public Results<T> iterator() {
+        return new Results<>(this);
+    }
+
+    /**
+     * Runs the query as a stream. Closing the stream stops the requests of the next pages.
+     *
+     * @return the stream of the queried objects, in the order of the query
+     */
+    public Stream<T> stream() {
+        Results<T> results = iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(results::close);
+    }
+
+    /**
+     * The objects of a running query, in the order of the query.
+     *
+     * @param <T> the type of the queried objects
+     */
+    public static final class Results<T> implements Iterator<T>, AutoCloseable {
+        private static final Page END = new Page(null, null);
+
+        private final PrefetchingQuery<T> query;
+        private final BlockingQueue<Page> queue;
+        private Thread fetcher;
+        private Iterator<Map<String, AttributeValue>> items = Collections.emptyIterator();
+        private boolean done;
+
+        private Results(PrefetchingQuery<T> query) {
+            this.query = query;
+            this.queue = new ArrayBlockingQueue<>(query.prefetch);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (fetcher == null && !done) {
+                fetcher = Thread.ofVirtual().start(this::fetch);
+            }
+
+            while (!items.hasNext()) {
+                if (done) {
+                    return false;
+                }
+
+                Page page = take();
+                if (page == END) {
+                    done = true;
+                } else if (page.failure() != null) {
+                    done = true;
+                    throw page.failure();
+                } else {
+                    items = page.response().items().iterator();
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return query.serializer.deserialize(items.next());
+        }
+
+        /**
+         * Stops requesting further pages. Items of pages that were already received are dropped.
+         */
+        @Override
+        public void close() {
+            done = true;
+            items = Collections.emptyIterator();
+            if (fetcher != null) {
+                fetcher.interrupt();
+            }
+        }
+
+        private void fetch() {
+            try {
+                QueryRequest request = query.request;
+                while (true) {
+                    QueryResponse response = query.client.query(request);
+                    queue.put(new Page(response, null));
+                    if (!response.hasLastEvaluatedKey() || response.lastEvaluatedKey().isEmpty()) {
+                        queue.put(END);
+                        return;
+                    }
+
+                    request = request.toBuilder().exclusiveStartKey(response.lastEvaluatedKey()).build();
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                // The results were closed.
+            } catch (RuntimeException ex) {
+                try {
+                    queue.put(new Page(null, ex));
+                } catch (InterruptedException interrupted) {
+                    // The results were closed.
+                }
+            }
+        }
+
+        private Page take() {
+            try {
+                return queue.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for the next page", ex);
+            }
+        }
+    }
+
+    private record Page(QueryResponse response, RuntimeException failure) {
+    }
+
+    /**
+     * Configures a {@link PrefetchingQuery}.
+     */
+    public static final class Builder<T> {
+        private final DynamoDbClient client;
+        private final QueryRequest request;
+        private final Serializer<T> serializer;
+        private int prefetch = 2;
+
+        private Builder(DynamoDbClient client, QueryRequest request, Serializer<T> serializer) {
+            this.client = client;
+            this.request = request;
+            this.serializer = serializer;
+        }
+
+        /**
+         * Sets how many received pages can wait for the consumer. The next request is only sent once the
+         * previous page found room, so at most this many pages, plus the one being received and the one being
+         * iterated, are held in memory. Defaults to 2.
+         *
+         * @param prefetch the number of pages received ahead of the consumer
+         * @return this builder
+         */
+        public Builder<T> prefetch(int prefetch) {
+            if (prefetch < 1) {
+                throw new IllegalArgumentException("prefetch must be positive: " + prefetch);
+            }
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        public PrefetchingQuery<T> build() {
+            return new PrefetchingQuery<>(this);
+        }
+    }
+}
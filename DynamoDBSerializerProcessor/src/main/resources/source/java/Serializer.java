@@ -17,7 +17,18 @@ package ca.fineapps.util.ddb.serializer;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import javax.annotation.processing.Generated;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Serializes and deserializes objects of type {@code T} to and from
@@ -46,4 +57,167 @@ public interface Serializer<T> {
      * @return the deserialized object
      */
     T deserialize(Map<String, AttributeValue> map);
+
+    /**
+     * Converts the given objects into their map representations, in the same order. Large batches are
+     * converted in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param objects the objects to serialize; must not contain {@code null}
+     * @return the serialized objects
+     */
+    default List<Map<String, AttributeValue>> serializeAll(Collection<? extends T> objects) {
+        return serializeAll(objects, ForkJoinPool.commonPool(), BulkConverter.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Converts the given objects into their map representations, in the same order. Batches of at least
+     * {@code threshold} objects are split into chunks that are converted in parallel on the given executor.
+     *
+     * @param objects the objects to serialize; must not contain {@code null}
+     * @param executor the executor that converts the chunks of large batches
+     * @param threshold the smallest batch that is converted in parallel
+     * @return the serialized objects
+     */
+    default List<Map<String, AttributeValue>> serializeAll(Collection<? extends T> objects, Executor executor,
+            int threshold) {
+        return BulkConverter.convert(objects, this::serialize, executor, threshold);
+    }
+
+    /**
+     * Reconstructs objects from the given map representations, in the same order. Large batches, such as
+     * full query pages, are converted in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param maps the maps containing serialized attribute values; must not contain {@code null}
+     * @return the deserialized objects
+     */
+    default List<T> deserializeAll(Collection<? extends Map<String, AttributeValue>> maps) {
+        return deserializeAll(maps, ForkJoinPool.commonPool(), BulkConverter.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Reconstructs objects from the given map representations, in the same order. Batches of at least
+     * {@code threshold} maps are split into chunks that are converted in parallel on the given executor.
+     *
+     * @param maps the maps containing serialized attribute values; must not contain {@code null}
+     * @param executor the executor that converts the chunks of large batches
+     * @param threshold the smallest batch that is converted in parallel
+     * @return the deserialized objects
+     */
+    default List<T> deserializeAll(Collection<? extends Map<String, AttributeValue>> maps, Executor executor,
+            int threshold) {
+        return BulkConverter.convert(maps, this::deserialize, executor, threshold);
+    }
+
+    /**
+     * Computes the update that turns the stored item of {@code before} into the item of {@code after}:
+     * attributes whose value changed are set and attributes that are no longer present are removed.
+     * Generated serializers compare the objects field by field and only convert the changed values.
+     *
+     * @param before the object as it is stored; must not be {@code null}
+     * @param after the modified object; must not be {@code null}
+     * @return the update, which is empty when nothing changed
+     */
+    default ItemUpdate diff(T before, T after) {
+        Map<String, AttributeValue> stored = serialize(before);
+        Map<String, AttributeValue> modified = serialize(after);
+        ItemUpdate.Builder update = ItemUpdate.builder();
+
+        modified.forEach((attribute, value) -> {
+            if (!value.equals(stored.get(attribute))) {
+                update.set(attribute, value);
+            }
+        });
+        stored.keySet().forEach(attribute -> {
+            if (!modified.containsKey(attribute)) {
+                update.remove(attribute);
+            }
+        });
+
+        return update.build();
+    }
+
+    /**
+     * Computes the size of the object's item as DynamoDB counts it against the item size limit and for
+     * capacity units. Generated serializers compute it from the fields without building the map
+     * representation.
+     *
+     * @param object the object to measure; must not be {@code null}
+     * @return the size of the item in bytes
+     * @see ItemSizes
+     */
+    default long estimateSize(T object) {
+        return ItemSizes.itemSize(serialize(object));
+    }
+
+    /**
+     * Computes the size of the object when it is stored as a map attribute nested in another item, which
+     * adds the overhead of the map and of each of its entries to {@link #estimateSize(Object)}.
+     *
+     * @param object the object to measure; must not be {@code null}
+     * @return the size of the map attribute in bytes, not counting its name
+     */
+    default long estimateNestedSize(T object) {
+        return ItemSizes.valueSize(AttributeValue.fromM(serialize(object)));
+    }
+
+    /**
+     * Writes the given object as a DynamoDB JSON item, for example {@code {"id":{"S":"a"}}}.
+     * Generated serializers write the object directly instead of building its map representation first.
+     *
+     * @param object the object to serialize; must not be {@code null}
+     * @param out the destination of the JSON text
+     * @throws IOException if writing to {@code out} fails
+     */
+    default void writeJson(T object, Appendable out) throws IOException {
+        DynamoDBJson.writeItem(out, serialize(object));
+    }
+
+    /**
+     * Writes the given object as a UTF-8 encoded DynamoDB JSON item.
+     *
+     * @param object the object to serialize; must not be {@code null}
+     * @param out the destination of the JSON bytes; it is flushed but not closed
+     * @throws IOException if writing to {@code out} fails
+     */
+    default void writeJson(T object, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeJson(object, writer);
+        writer.flush();
+    }
+
+    /**
+     * Reconstructs an object from a DynamoDB JSON item.
+     *
+     * @param json the JSON text of a single item; must not be {@code null}
+     * @return the deserialized object
+     * @throws IllegalArgumentException if {@code json} is not a well-formed DynamoDB JSON item
+     */
+    default T readJson(CharSequence json) {
+        DynamoDBJson.Reader reader = new DynamoDBJson.Reader(json);
+        T object = readJson(reader);
+        reader.endDocument();
+        return object;
+    }
+
+    /**
+     * Reconstructs an object from a UTF-8 encoded DynamoDB JSON item.
+     *
+     * @param json the JSON bytes of a single item; must not be {@code null}
+     * @return the deserialized object
+     * @throws IllegalArgumentException if {@code json} is not a well-formed DynamoDB JSON item
+     */
+    default T readJson(ByteBuffer json) {
+        return readJson(StandardCharsets.UTF_8.decode(json));
+    }
+
+    /**
+     * Reads the next item from the given reader and reconstructs an object from it.
+     * Generated serializers decode the item directly instead of building its map representation first.
+     *
+     * @param reader the reader positioned at the start of an item
+     * @return the deserialized object
+     */
+    default T readJson(DynamoDBJson.Reader reader) {
+        return deserialize(reader.readItem());
+    }
 }
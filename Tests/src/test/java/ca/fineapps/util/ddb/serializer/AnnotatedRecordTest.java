@@ -54,6 +54,18 @@ public class AnnotatedRecordTest {
         assertThat(testType.intValue(), is(equalTo(3)));
     }
 
+    @Test
+    public void testDeserializeIgnoresUnknownAttributes() {
+        Map<String, AttributeValue> serialized = Map.of(
+                "stringValue", AttributeValue.builder().s("Test-String").build(),
+                "otherValue", AttributeValue.builder().n("5").build()
+        );
+        TestType testType = serializer.deserialize(serialized);
+
+        assertThat(testType.stringValue(), is(equalTo("Test-String")));
+        assertThat(testType.intValue(), is(equalTo(0)));
+    }
+
     @Serialize
     record TestType(String stringValue, int intValue) {
     }
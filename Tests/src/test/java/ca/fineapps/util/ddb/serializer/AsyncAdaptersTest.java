@@ -0,0 +1,193 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class AsyncAdaptersTest {
+    private static final int PAGES = 5;
+    private static final int PAGE_SIZE = 10;
+
+    private final Serializer<TestType> serializer = AsyncAdaptersTest_TestTypeSerializer.create();
+    private ExecutorService eventLoop;
+    private ExecutorService decoder;
+
+    @BeforeEach
+    public void setUp() {
+        eventLoop = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "event-loop"));
+        decoder = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "decoder"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        eventLoop.shutdown();
+        decoder.shutdown();
+    }
+
+    @Test
+    public void testPublishesAllItemsOnExecutor() throws Exception {
+        FakePages pages = new FakePages();
+        TestSubscriber subscriber = new TestSubscriber();
+
+        AsyncAdapters.fromQuery(pages, serializer, decoder).subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.done.get(5, TimeUnit.SECONDS);
+
+        assertThat(List.copyOf(subscriber.items), is(equalTo(objects(PAGES * PAGE_SIZE))));
+        assertThat(subscriber.threads, is(equalTo(Set.of("decoder"))));
+    }
+
+    @Test
+    public void testHonoursDemand() throws Exception {
+        FakePages pages = new FakePages();
+        TestSubscriber subscriber = new TestSubscriber();
+
+        AsyncAdapters.fromQuery(pages, serializer, decoder).subscribe(subscriber);
+        subscriber.subscription.request(5);
+        subscriber.await(5);
+        Thread.sleep(50);
+
+        assertThat(subscriber.items.size(), is(equalTo(5)));
+        assertThat(pages.requested.get(), is(equalTo(1)));
+
+        subscriber.subscription.request(10);
+        subscriber.await(15);
+        Thread.sleep(50);
+
+        assertThat(subscriber.items.size(), is(equalTo(15)));
+        assertThat(pages.requested.get(), is(equalTo(2)));
+
+        subscriber.subscription.cancel();
+        assertThat(pages.cancelled, is(true));
+    }
+
+    @Test
+    public void testGetItem() throws Exception {
+        TestType object = new TestType(1, "name-1");
+        CompletableFuture<GetItemResponse> response = CompletableFuture.completedFuture(
+                GetItemResponse.builder().item(serializer.serialize(object)).build());
+
+        assertThat(AsyncAdapters.fromGetItem(response, serializer, decoder).get(5, TimeUnit.SECONDS),
+                is(equalTo(object)));
+        assertThat(AsyncAdapters.fromGetItem(CompletableFuture.completedFuture(GetItemResponse.builder().build()),
+                serializer, decoder).get(5, TimeUnit.SECONDS), is(nullValue()));
+    }
+
+    private static List<TestType> objects(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new TestType(i, "name-" + i)).toList();
+    }
+
+    @Serialize
+    record TestType(int id, String name) {
+    }
+
+    // Emits a page per request from the event loop thread, as the SDK's paginators do.
+    private class FakePages implements Publisher<QueryResponse> {
+        private final AtomicInteger requested = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        @Override
+        public void subscribe(Subscriber<? super QueryResponse> subscriber) {
+            AtomicInteger sent = new AtomicInteger();
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                    for (long i = 0; i < n; i++) {
+                        requested.incrementAndGet();
+                        eventLoop.execute(() -> {
+                            int page = sent.getAndIncrement();
+                            if (page >= PAGES) {
+                                return;
+                            }
+                            subscriber.onNext(QueryResponse.builder()
+                                    .items(IntStream.range(page * PAGE_SIZE, (page + 1) * PAGE_SIZE)
+                                            .mapToObj(id -> serializer.serialize(new TestType(id, "name-" + id)))
+                                            .toList())
+                                    .build());
+                            if (page == PAGES - 1) {
+                                subscriber.onComplete();
+                            }
+                        });
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<TestType> {
+        private final Queue<TestType> items = new ConcurrentLinkedQueue<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(TestType item) {
+            threads.add(Thread.currentThread().getName());
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+
+        void await(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (items.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
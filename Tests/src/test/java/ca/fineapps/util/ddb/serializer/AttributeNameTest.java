@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import ca.fineapps.util.ddb.serializer.fixtures.Shipment;
+import ca.fineapps.util.ddb.serializer.fixtures.ShipmentSerializer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class AttributeNameTest {
+    private final Serializer<TestType> serializer = AttributeNameTest_TestTypeSerializer.create();
+    private final TestType object = new TestType("customer-1", 3, Set.of("a"), new Child("child"));
+
+    @Test
+    public void testAttributesUseTheirAliases() {
+        Map<String, AttributeValue> map = serializer.serialize(object);
+
+        assertThat(map, aMapWithSize(4));
+        assertThat(map, hasEntry("ci", AttributeValue.fromS("customer-1")));
+        assertThat(map, hasEntry("n", AttributeValue.fromN("3")));
+        assertThat(map, hasEntry("tags", AttributeValue.fromSs(List.of("a"))));
+        assertThat(map, hasEntry("c", AttributeValue.fromM(Map.of("nm", AttributeValue.fromS("child")))));
+        assertThat(serializer.deserialize(map), is(equalTo(object)));
+        assertThat(serializer.estimateSize(object), is(equalTo(ItemSizes.itemSize(map))));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws IOException {
+        StringBuilder json = new StringBuilder();
+        serializer.writeJson(object, json);
+
+        assertThat(DynamoDBJson.readItem(json), is(equalTo(serializer.serialize(object))));
+        assertThat(serializer.readJson(json), is(equalTo(object)));
+    }
+
+    @Test
+    public void testExpressionsUseTheirAliases() {
+        ItemUpdate diff = serializer.diff(object, new TestType("customer-2", 3, null, new Child("child")));
+        ItemUpdate update = new AttributeNameTest_TestTypeUpdates().incrementNumberOfItems(2).build();
+
+        assertThat(diff.expressionAttributeNames(), hasEntry("#n0", "ci"));
+        assertThat(diff.expressionAttributeNames(), hasEntry("#n1", "tags"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "n"));
+        assertThat(AttributeNameTest_SummaryProjection.EXPRESSION_ATTRIBUTE_NAMES,
+                hasEntry("#customerIdentifier", "ci"));
+        assertThat(AttributeNameTest_SummaryProjection.deserialize(serializer.serialize(object)).customerIdentifier(),
+                is(equalTo("customer-1")));
+    }
+
+    @Test
+    public void testViewUsesTheirAliases() {
+        AttributeNameTest_TestTypeView view = new AttributeNameTest_TestTypeView(serializer.serialize(object));
+
+        assertThat(view.customerIdentifier(), is(equalTo("customer-1")));
+        assertThat(view.numberOfItems(), is(equalTo(3)));
+        assertThat(view.child().name(), is(equalTo("child")));
+    }
+
+    @Test
+    public void testAnnotationsOfPrecompiledTypes() {
+        Serializer<Shipment> shipmentSerializer = ShipmentSerializer.create();
+        Shipment shipment = new Shipment("YUL", new int[]{3, 5}, 0, 1.0 / 3, "fragile ".repeat(50));
+
+        Map<String, AttributeValue> map = shipmentSerializer.serialize(shipment);
+        Shipment deserialized = shipmentSerializer.deserialize(map);
+
+        assertThat(map, aMapWithSize(4));
+        assertThat(map, hasEntry("dst", AttributeValue.fromS("YUL")));
+        assertThat(map, hasEntry("weights", AttributeValue.fromB(SdkBytes.fromByteArray(
+                PackedArrays.pack(shipment.weights())))));
+        assertThat(map, hasEntry("ratio", AttributeValue.fromN("0.33")));
+        assertThat(map.get("notes").b().asByteArray()[0], is(equalTo((byte) 1)));
+        assertThat(deserialized.notes(), is(equalTo(shipment.notes())));
+        assertThat(deserialized.weights(), is(equalTo(shipment.weights())));
+    }
+
+    @Serialize(view = true)
+    record TestType(@AttributeName("ci") String customerIdentifier, @AttributeName("n") int numberOfItems,
+                    Set<String> tags, @AttributeName("c") Child child) {
+    }
+
+    record Child(@AttributeName("nm") String name) {
+    }
+
+    // Shipment is compiled apart from this test, so its annotations are read from the class file.
+    @Serialize(Shipment.class)
+    interface ShipmentSerializerProvider {
+    }
+
+    @Projection(TestType.class)
+    interface Summary {
+        String customerIdentifier();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class BigNumbersTest {
+    private final Serializer<TestType> serializer = BigNumbersTest_TestTypeSerializer.create();
+
+    @Test
+    public void testRoundTrip() {
+        BigDecimal large = new BigDecimal("1234567890123456789012345678901234.5678");
+        TestType object = new TestType(new BigDecimal("1.50"), large, new BigInteger("-42"),
+                new BigInteger("123456789012345678901234567890"), new AtomicInteger(3), new AtomicLong(1L << 40),
+                List.of(new BigDecimal("0.1"), new BigDecimal("2E+3")), Set.of(BigInteger.ONE, BigInteger.TEN),
+                new BigDecimal[]{new BigDecimal("-7.25"), BigDecimal.ZERO});
+
+        Map<String, AttributeValue> map = serializer.serialize(object);
+
+        assertThat(map, hasEntry("amount", AttributeValue.fromN("1.50")));
+        assertThat(map, hasEntry("large", AttributeValue.fromN("1234567890123456789012345678901234.5678")));
+        assertThat(map, hasEntry("counter", AttributeValue.fromN("3")));
+        assertThat(map, hasEntry("rates", AttributeValue.fromNs(List.of("0.1", "2E+3"))));
+
+        TestType deserialized = serializer.deserialize(map);
+
+        assertThat(deserialized.amount(), is(equalTo(object.amount())));
+        assertThat(deserialized.amount().scale(), is(equalTo(2)));
+        assertThat(deserialized.large(), is(equalTo(large)));
+        assertThat(deserialized.small(), is(equalTo(object.small())));
+        assertThat(deserialized.huge(), is(equalTo(object.huge())));
+        assertThat(deserialized.counter().get(), is(equalTo(3)));
+        assertThat(deserialized.sequence().get(), is(equalTo(1L << 40)));
+        assertThat(deserialized.rates(), is(equalTo(object.rates())));
+        assertThat(deserialized.ids(), is(equalTo(object.ids())));
+        assertThat(List.of(deserialized.prices()), is(equalTo(List.of(object.prices()))));
+    }
+
+    @Test
+    public void testParseMatchesJdk() {
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            String value = switch (i % 3) {
+                case 0 -> BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(20)).toString();
+                case 1 -> new BigInteger(random.nextInt(100) + 1, random).negate().toString();
+                default -> Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+            };
+
+            assertThat(value, Numbers.parseBigDecimal(value), is(equalTo(new BigDecimal(value))));
+            if (!value.contains(".") && !value.contains("E")) {
+                assertThat(value, Numbers.parseBigInteger(value), is(equalTo(new BigInteger(value))));
+            }
+        }
+
+        for (String value : List.of("-0", "0.000", "5.", ".5", "99999999999999999", "100000000000000000")) {
+            assertThat(value, Numbers.parseBigDecimal(value), is(equalTo(new BigDecimal(value))));
+        }
+    }
+
+    @Test
+    public void testUnserializedFieldsAreNotValidated() {
+        Serializer<Metered> serializer = BigNumbersTest_MeteredSerializer.create();
+
+        Map<String, AttributeValue> map = serializer.serialize(new Metered("id-1", 3));
+
+        assertThat(map, is(equalTo(Map.of("id", AttributeValue.fromS("id-1"), "count", AttributeValue.fromN("3")))));
+        assertThat(serializer.deserialize(map), is(equalTo(new Metered("id-1", 3))));
+    }
+
+    @Serialize
+    record TestType(BigDecimal amount, BigDecimal large, BigInteger small, BigInteger huge, AtomicInteger counter,
+                    AtomicLong sequence, List<BigDecimal> rates, Set<BigInteger> ids, BigDecimal[] prices) {
+    }
+
+    // The constant is not serialized, so its unsupported number type is not reported.
+    @Serialize
+    record Metered(String id, int count) {
+        static final LongAdder READS = new LongAdder();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BulkTest {
+    private Serializer<TestType> serializer;
+
+    @BeforeEach
+    public void setUp() {
+        serializer = ca.fineapps.util.ddb.serializer.BulkTest_TestTypeSerializer.create();
+    }
+
+    @Test
+    public void testSmallBatch() {
+        List<TestType> objects = objects(10);
+
+        List<Map<String, AttributeValue>> maps = serializer.serializeAll(objects);
+
+        assertThat(maps.size(), is(equalTo(10)));
+        assertThat(serializer.deserializeAll(maps), is(equalTo(objects)));
+    }
+
+    @Test
+    public void testLargeBatchKeepsOrder() {
+        List<TestType> objects = objects(10_000);
+
+        List<Map<String, AttributeValue>> maps = serializer.serializeAll(objects);
+
+        for (int i = 0; i < objects.size(); i++) {
+            assertThat(maps.get(i), is(equalTo(serializer.serialize(objects.get(i)))));
+        }
+        assertThat(serializer.deserializeAll(maps), is(equalTo(objects)));
+    }
+
+    @Test
+    public void testCallerSuppliedExecutor() {
+        List<TestType> objects = objects(2_000);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            List<Map<String, AttributeValue>> maps = serializer.serializeAll(new LinkedList<>(objects), executor, 1);
+            List<TestType> deserialized = serializer.deserializeAll(maps, executor, 1);
+
+            assertThat(deserialized, is(equalTo(objects)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testThresholdIsHonored() {
+        AtomicInteger tasks = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(4) {
+            @Override
+            public void execute(Runnable task) {
+                tasks.incrementAndGet();
+                super.execute(task);
+            }
+        };
+
+        try {
+            assertThat(serializer.serializeAll(objects(9), pool, 10).size(), is(equalTo(9)));
+            assertThat(tasks.get(), is(equalTo(0)));
+
+            List<TestType> objects = objects(20);
+            assertThat(serializer.deserializeAll(serializer.serializeAll(objects, pool, 10), pool, 10),
+                    is(equalTo(objects)));
+            assertThat(tasks.get(), is(equalTo(8)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailurePropagates() {
+        List<Map<String, AttributeValue>> maps = new ArrayList<>(serializer.serializeAll(objects(5_000)));
+        maps.set(4_321, Map.of("count", AttributeValue.fromN("not-a-number")));
+
+        assertThrows(NumberFormatException.class, () -> serializer.deserializeAll(maps));
+    }
+
+    private static List<TestType> objects(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new TestType("id-" + i, i, List.of("tag-" + i % 7)))
+                .toList();
+    }
+
+    @Serialize
+    record TestType(String id, int count, List<String> tags) {
+    }
+}
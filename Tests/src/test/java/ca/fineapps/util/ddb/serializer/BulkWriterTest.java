@@ -0,0 +1,186 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkWriterTest {
+    private static final String TABLE = "table";
+
+    private final Serializer<TestType> serializer = BulkWriterTest_TestTypeSerializer.create();
+
+    @Test
+    public void testWritesEveryItemDespiteUnprocessedItems() {
+        FakeClient client = new FakeClient(0.3);
+        BulkWriter<TestType> writer = BulkWriter.builder(client, TABLE, serializer)
+                .concurrency(8)
+                .maxAttempts(20)
+                .backoff(Duration.ofNanos(1), Duration.ofMillis(1))
+                .build();
+
+        writer.write(objects(5_000, "payload").stream());
+
+        assertThat(client.stored.size(), is(equalTo(5_000)));
+        assertThat(serializer.deserialize(client.stored.get("id-1234")),
+                is(equalTo(new TestType("id-1234", "payload"))));
+        assertThat(writer.itemsWritten(), is(equalTo(5_000L)));
+        assertThat(writer.requestsSent(), is(equalTo((long) client.requests.get())));
+        assertTrue(writer.itemsRetried() > 0);
+        assertTrue(client.maxBatchItems <= BulkWriter.MAX_BATCH_ITEMS);
+        assertTrue(client.maxInFlight.get() <= 8);
+    }
+
+    @Test
+    public void testCountsItemBytes() {
+        FakeClient client = new FakeClient(0);
+        BulkWriter<TestType> writer = BulkWriter.builder(client, TABLE, serializer).build();
+
+        writer.write(objects(40, "x".repeat(300 * 1024)).iterator());
+
+        assertThat(client.stored.size(), is(equalTo(40)));
+        assertTrue(writer.bytesWritten() > 40L * 300 * 1024);
+    }
+
+    @Test
+    public void testRejectsOversizedItems() {
+        FakeClient client = new FakeClient(0);
+        BulkWriter<TestType> writer = BulkWriter.builder(client, TABLE, serializer).build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.write(objects(1, "x".repeat(1024 * 1024)).iterator()));
+        assertThat(client.stored.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testFailsAfterMaxAttempts() {
+        FakeClient client = new FakeClient(1);
+        BulkWriter<TestType> writer = BulkWriter.builder(client, TABLE, serializer)
+                .maxAttempts(3)
+                .backoff(Duration.ZERO, Duration.ZERO)
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> writer.write(objects(100, "payload").stream()));
+    }
+
+    @Test
+    public void testBackoffSaturatesAtTheMaximum() {
+        long base = Duration.ofSeconds(9).toNanos();
+        long max = Duration.ofMinutes(5).toNanos();
+
+        assertThat(BulkWriter.backoffCap(base, max, 1), is(equalTo(base)));
+        assertThat(BulkWriter.backoffCap(base, max, 3), is(equalTo(4 * base)));
+        assertThat(BulkWriter.backoffCap(base, max, 31), is(equalTo(max)));
+        assertThat(BulkWriter.backoffCap(base, max, 64), is(equalTo(max)));
+        assertThat(BulkWriter.backoffCap(0, max, 31), is(equalTo(0L)));
+        assertThat(BulkWriter.backoffCap(1, Long.MAX_VALUE, 63), is(equalTo(1L << 62)));
+        assertThat(BulkWriter.backoffCap(1, Long.MAX_VALUE, 64), is(equalTo(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testRejectsInvalidBackoff() {
+        BulkWriter.Builder<TestType> builder = BulkWriter.builder(new FakeClient(0), TABLE, serializer);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.backoff(null, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.backoff(Duration.ofMillis(-1), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, 
+                () -> builder.backoff(Duration.ofSeconds(2), Duration.ofSeconds(1)));
+    }
+
+    private static List<TestType> objects(int count, String payload) {
+        return IntStream.range(0, count).mapToObj(i -> new TestType("id-" + i, payload)).toList();
+    }
+
+    @Serialize
+    record TestType(String id, String payload) {
+    }
+
+    // Stores the items of each request, returning a random share of them as unprocessed instead.
+    private static class FakeClient implements DynamoDbClient {
+        private final double unprocessedRate;
+        private final Random random = new Random(42);
+        private final Map<String, Map<String, AttributeValue>> stored =
+                new ConcurrentHashMap<>();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile int maxBatchItems;
+
+        FakeClient(double unprocessedRate) {
+            this.unprocessedRate = unprocessedRate;
+        }
+
+        @Override
+        public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                requests.incrementAndGet();
+                List<WriteRequest> writes = request.requestItems().get(TABLE);
+                synchronized (this) {
+                    maxBatchItems = Math.max(maxBatchItems, writes.size());
+                }
+
+                List<WriteRequest> unprocessed = new ArrayList<>();
+                for (WriteRequest write : writes) {
+                    boolean skip;
+                    synchronized (random) {
+                        skip = random.nextDouble() < unprocessedRate;
+                    }
+                    if (skip) {
+                        unprocessed.add(write);
+                    } else {
+                        Map<String, AttributeValue> item =
+                                write.putRequest().item();
+                        stored.put(item.get("id").s(), item);
+                    }
+                }
+
+                return BatchWriteItemResponse.builder()
+                        .unprocessedItems(unprocessed.isEmpty() ? Map.of() : Map.of(TABLE, unprocessed))
+                        .build();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkedItemsTest {
+    private static final String TABLE = "table";
+    private static final Map<String, AttributeValue> KEY =
+            Map.of("pk", AttributeValue.fromS("user-1"), "sk", AttributeValue.fromS("order-1"));
+
+    private final Serializer<TestType> serializer = ChunkedItemsTest_TestTypeSerializer.create();
+    private final FakeClient client = new FakeClient();
+
+    @Test
+    public void testSmallObjectsAreSingleItems() {
+        ChunkedItems<TestType> items = items().build();
+        TestType object = new TestType("user-1", "order-1", "open", List.of("a", "b"), "notes", new byte[]{1});
+
+        items.put(object);
+
+        assertThat(client.items.size(), is(equalTo(1)));
+        assertThat(client.items.get("user-1#order-1"), is(equalTo(serializer.serialize(object))));
+        assertThat(items.get(KEY), is(equalTo(object)));
+    }
+
+    @Test
+    public void testLargeObjectsAreChunked() {
+        ChunkedItems<TestType> items = items().build();
+        TestType object = largeObject();
+
+        items.put(object);
+
+        assertTrue(client.items.size() > 3);
+        client.items.values().forEach(item -> assertTrue(ItemSizes.itemSize(item) <= ItemSizes.MAX_ITEM_BYTES));
+
+        Map<String, AttributeValue> head = client.items.get("user-1#order-1");
+        String version = head.get(ChunkedItems.VERSION_ATTRIBUTE).s();
+        assertThat(head.get("status"), is(equalTo(AttributeValue.fromS("open"))));
+        assertThat(head.get(ChunkedItems.CHUNKS_ATTRIBUTE).n(), is(equalTo(Integer.toString(client.items.size() - 1))));
+        assertTrue(client.items.containsKey("user-1#order-1#chunk#" + version + "#0000"));
+        assertThat(client.lastPut, is(equalTo("user-1#order-1")));
+        assertThat(items.get(KEY), is(equalTo(object)));
+    }
+
+    @Test
+    public void testManyChunksAreWrittenInOrder() {
+        ChunkedItems<TestType> items = items().chunkSize(8 * 1024).build();
+        TestType object = largeObject();
+
+        items.put(object);
+
+        assertTrue(client.items.size() > 100);
+        assertThat(client.lastPut, is(equalTo("user-1#order-1")));
+        client.items.values().forEach(item -> assertTrue(ItemSizes.itemSize(item) <= 8 * 1024));
+        assertThat(items.get(KEY), is(equalTo(object)));
+    }
+
+    @Test
+    public void testReplacedChunksAreDeleted() {
+        ChunkedItems<TestType> items = items().build();
+        items.put(largeObject());
+        TestType smaller = new TestType("user-1", "order-1", "closed", List.of("z"), "", new byte[0]);
+
+        items.put(smaller);
+
+        assertThat(client.items.size(), is(equalTo(1)));
+        assertThat(items.get(KEY), is(equalTo(smaller)));
+        assertThat(items.get(Map.of("pk", AttributeValue.fromS("user-1"), "sk", AttributeValue.fromS("order-2"))),
+                is(nullValue()));
+    }
+
+    @Test
+    public void testFailedHeadWriteKeepsThePreviousObject() {
+        ChunkedItems<TestType> items = items().build();
+        TestType object = largeObject();
+        items.put(object);
+        TestType changed = new TestType("user-1", "order-1", "closed", object.lines().reversed(),
+                object.notes(), object.attachment());
+        client.failPuts = true;
+
+        assertThrows(IllegalStateException.class, () -> items.put(changed));
+        assertThat(items.get(KEY), is(equalTo(object)));
+
+        client.failPuts = false;
+        items.put(changed);
+        assertThat(items.get(KEY), is(equalTo(changed)));
+    }
+
+    @Test
+    public void testChunksOfOtherVersionsAreIgnored() {
+        ChunkedItems<TestType> items = items().build();
+        TestType object = largeObject();
+        items.put(object);
+        items.split(largeObject()).stream().skip(1).forEach(item -> client.store(item));
+
+        assertThat(items.get(KEY), is(equalTo(object)));
+    }
+
+    @Test
+    public void testMissingChunksFail() {
+        ChunkedItems<TestType> items = items().build();
+        items.put(largeObject());
+        client.items.remove(client.items.lastKey());
+
+        assertThrows(IllegalStateException.class, () -> items.get(KEY));
+    }
+
+    @Test
+    public void testOversizedElementsFail() {
+        ChunkedItems<TestType> items = items().chunkSize(2048).build();
+        TestType object = new TestType("user-1", "order-1", "open", List.of("x".repeat(4096)), "", new byte[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> items.put(object));
+        assertThat(client.items.size(), is(equalTo(0)));
+    }
+
+    private ChunkedItems.Builder<TestType> items() {
+        return ChunkedItems.builder(client, TABLE, serializer).keys("pk", "sk");
+    }
+
+    private static TestType largeObject() {
+        List<String> lines = IntStream.range(0, 3000).mapToObj(i -> "line " + i + " é".repeat(100)).toList();
+        byte[] attachment = new byte[450 * 1024];
+        Arrays.fill(attachment, (byte) 7);
+        return new TestType("user-1", "order-1", "open", lines, "notes 😀 ".repeat(60_000), attachment);
+    }
+
+    @Serialize
+    record TestType(String pk, String sk, String status, List<String> lines, String notes, byte[] attachment) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TestType that && pk.equals(that.pk) && sk.equals(that.sk) &&
+                    status.equals(that.status) && lines.equals(that.lines) && notes.equals(that.notes) &&
+                    Arrays.equals(attachment, that.attachment);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pk, sk);
+        }
+    }
+
+    // Keeps the items sorted by key and returns query results in pages of a few items.
+    private static class FakeClient implements DynamoDbClient {
+        private final NavigableMap<String, Map<String, AttributeValue>> items = new TreeMap<>();
+        private String lastPut;
+        private volatile boolean failPuts;
+
+        synchronized Map<String, AttributeValue> store(Map<String, AttributeValue> item) {
+            lastPut = key(item);
+            return items.put(lastPut, item);
+        }
+
+        private static String key(Map<String, AttributeValue> item) {
+            return item.get("pk").s() + "#" + item.get("sk").s();
+        }
+
+        @Override
+        public PutItemResponse putItem(PutItemRequest request) {
+            if (failPuts) {
+                throw new IllegalStateException("Request failed");
+            }
+            Map<String, AttributeValue> old = store(request.item());
+            return PutItemResponse.builder()
+                    .attributes(request.returnValues() == ReturnValue.ALL_OLD ? old : null)
+                    .build();
+        }
+
+        @Override
+        public synchronized BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+            for (WriteRequest write : request.requestItems().get(TABLE)) {
+                if (write.deleteRequest() != null) {
+                    items.remove(key(write.deleteRequest().key()));
+                } else {
+                    store(write.putRequest().item());
+                }
+            }
+            return BatchWriteItemResponse.builder().build();
+        }
+
+        @Override
+        public synchronized QueryResponse query(QueryRequest request) {
+            Map<String, AttributeValue> values = request.expressionAttributeValues();
+            String prefix = values.get(":pk").s() + "#";
+            String from = request.hasExclusiveStartKey()
+                    ? key(request.exclusiveStartKey()) + "\0"
+                    : prefix + values.get(":head").s();
+
+            List<Map<String, AttributeValue>> page = new ArrayList<>(
+                    items.subMap(from, true, prefix + values.get(":last").s(), true).values());
+            QueryResponse.Builder response = QueryResponse.builder();
+            if (page.size() > 5) {
+                page = page.subList(0, 5);
+                response.lastEvaluatedKey(page.get(4));
+            }
+            return response.items(page).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.number.OrderingComparison.lessThan;
+
+public class CompressionTest {
+    private final Serializer<TestType> serializer = CompressionTest_TestTypeSerializer.create();
+
+    @Test
+    public void testLargeValuesAreCompressed() {
+        String body = "{\"event\":\"page_view\",\"path\":\"/products/été\"},".repeat(200);
+        TestType object = new TestType(body, "short", body.getBytes());
+
+        Map<String, AttributeValue> map = serializer.serialize(object);
+
+        byte[] stored = map.get("body").b().asByteArray();
+        assertThat(stored[0], is(equalTo((byte) 1)));
+        assertThat(stored.length, is(lessThan(body.length() / 5)));
+        assertThat(map.get("summary").b().asByteArray()[0], is(equalTo((byte) 0)));
+        assertThat(serializer.deserialize(map), is(equalTo(object)));
+    }
+
+    @Test
+    public void testIncompressibleValuesAreStoredRaw() {
+        byte[] random = new byte[4096];
+        new Random(3).nextBytes(random);
+
+        byte[] stored = Compression.compress(random, 0);
+
+        assertThat(stored.length, is(equalTo(random.length + 1)));
+        assertThat(stored[0], is(equalTo((byte) 0)));
+        assertThat(Compression.decompressBytes(ByteBuffer.wrap(stored)), is(equalTo(random)));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws IOException {
+        TestType object = new TestType("a".repeat(5000), "", new byte[]{1, 2, 3});
+        StringBuilder json = new StringBuilder();
+        serializer.writeJson(object, json);
+
+        assertThat(DynamoDBJson.readItem(json), is(equalTo(serializer.serialize(object))));
+        assertThat(serializer.readJson(json), is(equalTo(object)));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int task = 0; task < 16; task++) {
+                int seed = task;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 200; i++) {
+                        String value = Integer.toString(random.nextInt(1000)).repeat(random.nextInt(2000));
+                        byte[] stored = Compression.compress(value, 64);
+                        assertThat(Compression.decompressString(ByteBuffer.wrap(stored).asReadOnlyBuffer()),
+                                is(equalTo(value)));
+                    }
+                }));
+            }
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    @Serialize
+    record TestType(@Compressed String body, @Compressed(threshold = 100) String summary,
+                    @Compressed byte[] payload) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TestType that && body.equals(that.body) && summary.equals(that.summary) &&
+                    Arrays.equals(payload, that.payload);
+        }
+
+        @Override
+        public int hashCode() {
+            return body.hashCode();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class DiffTest {
+    private Serializer<TestType> serializer;
+
+    @BeforeEach
+    public void setUp() {
+        serializer = ca.fineapps.util.ddb.serializer.DiffTest_TestTypeSerializer.create();
+    }
+
+    @Test
+    public void testDiffUnchanged() {
+        TestType testType = new TestType("id-1", "name", 1, Double.NaN, new int[]{1, 2}, List.of("a"), new Child("c"));
+        TestType copy = new TestType("id-1", "name", 1, Double.NaN, new int[]{1, 2}, List.of("a"), new Child("c"));
+
+        ItemUpdate update = serializer.diff(testType, copy);
+
+        assertThat(update.isEmpty(), is(true));
+        assertThat(update.expressionAttributeNames(), aMapWithSize(0));
+        assertThat(update.expressionAttributeValues(), aMapWithSize(0));
+    }
+
+    @Test
+    public void testDiffSetsChangedValues() {
+        TestType before = new TestType("id-1", "name", 1, 0.5, new int[]{1, 2}, List.of("a"), new Child("c"));
+        TestType after = new TestType("id-1", "name", 2, 0.5, new int[]{1, 3}, List.of("a"), new Child("d"));
+
+        ItemUpdate update = serializer.diff(before, after);
+
+        assertThat(update.updateExpression(), is(equalTo("SET #n0 = :v0, #n1 = :v1, #n2 = :v2")));
+        assertThat(update.expressionAttributeNames(), aMapWithSize(3));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "count"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "values"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n2", "child"));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v0", AttributeValue.fromN("2")));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v2",
+                AttributeValue.fromM(Map.of("name", AttributeValue.fromS("d")))));
+    }
+
+    @Test
+    public void testDiffRemovesNullValues() {
+        TestType before = new TestType("id-1", "name", 1, 0.5, null, List.of("a"), null);
+        TestType after = new TestType("id-1", null, 1, 0.5, null, null, null);
+
+        ItemUpdate update = serializer.diff(before, after);
+
+        assertThat(update.updateExpression(), is(equalTo("REMOVE #n0, #n1")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "name"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "tags"));
+        assertThat(update.expressionAttributeValues(), aMapWithSize(0));
+    }
+
+    @Test
+    public void testDiffSetAndRemove() {
+        TestType before = new TestType("id-1", "name", 1, 0.5, null, List.of("a"), null);
+        TestType after = new TestType("id-1", null, 1, 0.25, null, List.of("a"), null);
+
+        ItemUpdate update = serializer.diff(before, after);
+
+        assertThat(update.updateExpression(), is(equalTo("SET #n1 = :v0 REMOVE #n0")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "name"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "ratio"));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v0", AttributeValue.fromN("0.25")));
+    }
+
+    @Test
+    public void testApplyTo() {
+        TestType before = new TestType("id-1", "name", 1, 0.5, null, null, null);
+        TestType after = new TestType("id-1", null, 1, 0.5, null, null, null);
+
+        UpdateItemRequest request = serializer.diff(before, after).applyTo(UpdateItemRequest.builder()).build();
+
+        assertThat(request.updateExpression(), is(equalTo("REMOVE #n0")));
+        assertThat(request.expressionAttributeNames(), hasEntry("#n0", "name"));
+        assertThat(request.expressionAttributeValues(), is(nullValue()));
+    }
+
+    @Test
+    public void testDefaultDiffMatchesGenerated() {
+        Serializer<TestType> mapBased = new Serializer<>() {
+            @Override
+            public Map<String, AttributeValue> serialize(TestType object) {
+                return serializer.serialize(object);
+            }
+
+            @Override
+            public TestType deserialize(Map<String, AttributeValue> map) {
+                return serializer.deserialize(map);
+            }
+        };
+        TestType before = new TestType("id-1", "name", 1, 0.5, null, null, null);
+        TestType after = new TestType("id-1", null, 2, 0.5, null, null, null);
+
+        ItemUpdate update = mapBased.diff(before, after);
+
+        assertThat(update.updateExpression(), is(equalTo("SET #n0 = :v0 REMOVE #n1")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "count"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "name"));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v0", AttributeValue.fromN("2")));
+    }
+
+    @Serialize
+    record TestType(String id, String name, int count, double ratio, int[] values, List<String> tags, Child child) {
+    }
+
+    record Child(String name) {
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import ca.fineapps.util.ddb.serializer.fixtures.Priority;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EnumCodeTest {
+    private final Serializer<TestType> serializer = EnumCodeTest_TestTypeSerializer.create();
+
+    @Test
+    public void testCodesAreStoredAsNumbers() {
+        TestType object = new TestType(Status.SUSPENDED, new Status[]{Status.ACTIVE, Status.CLOSED},
+                Set.of(Status.CLOSED), Color.RED, Color.GREEN, List.of(Color.BLUE));
+
+        Map<String, AttributeValue> map = serializer.serialize(object);
+
+        assertThat(map, hasEntry("status", AttributeValue.fromN("2")));
+        assertThat(map, hasEntry("history", AttributeValue.fromNs(List.of("1", "30"))));
+        assertThat(map, hasEntry("closed", AttributeValue.fromNs(List.of("30"))));
+        assertThat(map, hasEntry("color", AttributeValue.fromS("RED")));
+        assertThat(serializer.deserialize(map), is(equalTo(object)));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws IOException {
+        TestType object = new TestType(Status.CLOSED, new Status[]{Status.SUSPENDED}, Set.of(Status.ACTIVE),
+                Color.BLUE, Color.RED, List.of(Color.GREEN, Color.RED));
+        StringBuilder json = new StringBuilder();
+        serializer.writeJson(object, json);
+
+        assertThat(DynamoDBJson.readItem(json), is(equalTo(serializer.serialize(object))));
+        assertThat(serializer.readJson(json), is(equalTo(object)));
+    }
+
+    @Test
+    public void testUnknownValuesTakeTheFallback() {
+        TestType object = serializer.deserialize(Map.of(
+                "status", AttributeValue.fromN("99"),
+                "history", AttributeValue.fromNs(List.of("1", "99")),
+                "shade", AttributeValue.fromS("PURPLE"),
+                "palette", AttributeValue.fromSs(List.of("PURPLE", "RED"))
+        ));
+
+        assertThat(object.status(), is(equalTo(Status.UNKNOWN)));
+        assertThat(object.history(), is(equalTo(new Status[]{Status.ACTIVE, Status.UNKNOWN})));
+        assertThat(object.shade(), is(nullValue()));
+        assertThat(object.palette(), is(equalTo(Arrays.asList(null, Color.RED))));
+    }
+
+    @Test
+    public void testUnknownValuesFailWithoutFallback() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> serializer.deserialize(Map.of("color", AttributeValue.fromS("PURPLE"))));
+        assertThat(exception.getMessage(), is(equalTo("No enum constant " + Color.class.getCanonicalName() +
+                ".PURPLE")));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> serializer.deserialize(Map.of("closed", AttributeValue.fromNs(List.of("99")))));
+    }
+
+    @Test
+    public void testCodesOfPrecompiledEnums() {
+        Serializer<Task> taskSerializer = EnumCodeTest_TaskSerializer.create();
+        Task task = new Task(Priority.HIGH, Set.of(Priority.LOW));
+
+        Map<String, AttributeValue> map = taskSerializer.serialize(task);
+
+        assertThat(map, hasEntry("priority", AttributeValue.fromN("9")));
+        assertThat(map, hasEntry("watched", AttributeValue.fromNs(List.of("1"))));
+        assertThat(taskSerializer.deserialize(map), is(equalTo(task)));
+    }
+
+    enum Status {
+        @EnumCode(0) UNKNOWN,
+        @EnumCode(1) ACTIVE,
+        @EnumCode(2) SUSPENDED,
+        @EnumCode(30) CLOSED
+    }
+
+    enum Color {
+        RED,
+        GREEN,
+        BLUE
+    }
+
+    @Serialize
+    record TestType(@EnumFallback("UNKNOWN") Status status, @EnumFallback("UNKNOWN") Status[] history,
+                    Set<Status> closed, Color color, @EnumFallback Color shade,
+                    @EnumFallback List<Color> palette) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TestType that && status == that.status && Arrays.equals(history, that.history) &&
+                    java.util.Objects.equals(closed, that.closed) && color == that.color && shade == that.shade &&
+                    java.util.Objects.equals(palette, that.palette);
+        }
+
+        @Override
+        public int hashCode() {
+            return java.util.Objects.hash(status, Arrays.hashCode(history), closed, color, shade, palette);
+        }
+    }
+
+    // Priority is compiled apart from this test, so its codes are read from the class file.
+    @Serialize
+    record Task(Priority priority, Set<Priority> watched) {
+    }
+}
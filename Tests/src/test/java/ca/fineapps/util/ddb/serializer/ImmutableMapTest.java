@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ImmutableMapTest {
+    private Serializer<TestType> serializer;
+
+    @BeforeEach
+    public void setUp() {
+        serializer = ca.fineapps.util.ddb.serializer.ImmutableMapTest_TestTypeSerializer.create();
+    }
+
+    @Test
+    public void testSerialize() {
+        TestType testType = new TestType("Test-String", 3, List.of(1, 2));
+        Map<String, AttributeValue> serialized = serializer.serialize(testType);
+
+        assertThat(serialized, aMapWithSize(3));
+        assertThat(serialized, hasEntry("stringValue", AttributeValue.builder().s("Test-String").build()));
+        assertThat(serialized, hasEntry("intValue", AttributeValue.builder().n("3").build()));
+        assertThat(serialized, hasEntry("intList", AttributeValue.builder().ns("1", "2").build()));
+        assertThrows(UnsupportedOperationException.class, () -> serialized.remove("intValue"));
+    }
+
+    @Test
+    public void testSerializeSkipsNullValues() {
+        TestType testType = new TestType(null, 3, null);
+        Map<String, AttributeValue> serialized = serializer.serialize(testType);
+
+        assertThat(serialized, aMapWithSize(1));
+        assertThat(serialized, hasEntry("intValue", AttributeValue.builder().n("3").build()));
+    }
+
+    @Test
+    public void testDeserialize() {
+        Map<String, AttributeValue> serialized = Map.of(
+                "stringValue", AttributeValue.builder().s("Test-String").build(),
+                "intValue", AttributeValue.builder().n("3").build()
+        );
+        TestType testType = serializer.deserialize(serialized);
+
+        assertThat(testType.stringValue(), is(equalTo("Test-String")));
+        assertThat(testType.intValue(), is(equalTo(3)));
+    }
+
+    @Serialize(immutable = true)
+    record TestType(String stringValue, int intValue, List<Integer> intList) {
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class ItemSizesTest {
+    private final Serializer<TestType> serializer = ItemSizesTest_TestTypeSerializer.create();
+
+    @Test
+    public void testEstimateMatchesSerializedItem() {
+        Child child = new Child("child-é", 1500);
+        TestType object = new TestType(-120_000, 0L, 0.125, 19.999, "naïve 😀", true, Kind.LARGE, Level.HIGH,
+                new byte[]{1, 2, 3}, new int[]{5, 6, 7}, "text ".repeat(400), child,
+                List.of(child, new Child(null, 7)), new Child[]{child}, Set.of("a", "bé"), List.of(10, 2500, -3),
+                new String[]{"x", "yz"}, Instant.ofEpochMilli(1_700_000_000_000L), new BigDecimal("0.00150"));
+
+        assertThat(serializer.estimateSize(object), is(equalTo(ItemSizes.itemSize(serializer.serialize(object)))));
+        assertThat(serializer.estimateNestedSize(object),
+                is(equalTo(ItemSizes.valueSize(AttributeValue.fromM(serializer.serialize(object))))));
+    }
+
+    @Test
+    public void testEstimateSkipsNullFields() {
+        TestType object = new TestType(1, null, 0, 0, null, false, null, null, null, null, null, null, null, null,
+                null, null, null, null, null);
+
+        assertThat(serializer.estimateSize(object), is(equalTo(ItemSizes.itemSize(serializer.serialize(object)))));
+    }
+
+    @Test
+    public void testNumberSizes() {
+        assertThat(ItemSizes.numberSize(0), is(equalTo(2L)));
+        assertThat(ItemSizes.numberSize(7), is(equalTo(2L)));
+        assertThat(ItemSizes.numberSize(1500), is(equalTo(2L)));
+        assertThat(ItemSizes.numberSize(-123), is(equalTo(3L)));
+        assertThat(ItemSizes.numberSize(Long.MIN_VALUE), is(equalTo(11L)));
+        assertThat(ItemSizes.numberSize("0.00150"), is(equalTo(2L)));
+        assertThat(ItemSizes.numberSize("10.05"), is(equalTo(3L)));
+        assertThat(ItemSizes.numberSize("1.0E20"), is(equalTo(2L)));
+
+        for (long value : new long[]{1, 10, 99, 101, -1_000_001, Long.MAX_VALUE}) {
+            assertThat(ItemSizes.numberSize(value), is(equalTo(ItemSizes.numberSize(Long.toString(value)))));
+        }
+    }
+
+    @Test
+    public void testCapacityUnits() {
+        assertThat(ItemSizes.writeCapacityUnits(0), is(equalTo(1L)));
+        assertThat(ItemSizes.writeCapacityUnits(1024), is(equalTo(1L)));
+        assertThat(ItemSizes.writeCapacityUnits(1025), is(equalTo(2L)));
+        assertThat(ItemSizes.readCapacityUnits(4096, true), is(equalTo(1.0)));
+        assertThat(ItemSizes.readCapacityUnits(4097, true), is(equalTo(2.0)));
+        assertThat(ItemSizes.readCapacityUnits(4097, false), is(equalTo(1.0)));
+        assertThat(ItemSizes.readCapacityUnits(100, false), is(equalTo(0.5)));
+    }
+
+    enum Kind {
+        SMALL,
+        LARGE
+    }
+
+    enum Level {
+        @EnumCode(1) LOW,
+        @EnumCode(200) HIGH
+    }
+
+    @Serialize
+    record Child(String name, int count) {
+    }
+
+    @Serialize
+    record TestType(int count, Long total, double ratio, @Scale(2) double price, String title, boolean active,
+                    Kind kind, Level level, byte[] bytes, @Packed int[] samples, @Compressed String body,
+                    Child child, List<Child> children, Child[] childArray, Set<String> tags, List<Integer> sizes,
+                    String[] names, Instant created, BigDecimal amount) {
+    }
+}
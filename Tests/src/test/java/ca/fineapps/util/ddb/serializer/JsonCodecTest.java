@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonCodecTest {
+    private static final String JSON = "{" +
+            "\"stringValue\":{\"S\":\"Quote \\\" and \\\\ and \\n\"}," +
+            "\"intValue\":{\"N\":\"42\"}," +
+            "\"boolValue\":{\"BOOL\":true}," +
+            "\"bytes\":{\"B\":\"AQID\"}," +
+            "\"tags\":{\"SS\":[\"tag\"]}," +
+            "\"numbers\":{\"NS\":[\"1\",\"2\"]}," +
+            "\"child\":{\"M\":{\"name\":{\"S\":\"child\"}}}," +
+            "\"children\":{\"L\":[{\"M\":{\"name\":{\"S\":\"a\"}}},{\"M\":{\"name\":{\"S\":\"b\"}}}]}," +
+            "\"color\":{\"S\":\"GREEN\"}," +
+            "\"createdAt\":{\"N\":\"1700000000000\"}" +
+            "}";
+
+    private Serializer<TestType> serializer;
+
+    @BeforeEach
+    public void setUp() {
+        serializer = ca.fineapps.util.ddb.serializer.JsonCodecTest_TestTypeSerializer.create();
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        StringBuilder json = new StringBuilder();
+        serializer.writeJson(testObject(), json);
+
+        assertThat(json.toString(), is(equalTo(JSON)));
+    }
+
+    @Test
+    public void testWriteJsonMatchesSerialize() throws IOException {
+        TestType testType = testObject();
+        StringBuilder json = new StringBuilder();
+        serializer.writeJson(testType, json);
+
+        assertThat(DynamoDBJson.readItem(json), is(equalTo(serializer.serialize(testType))));
+    }
+
+    @Test
+    public void testWriteJsonSkipsNullValues() throws IOException {
+        StringBuilder json = new StringBuilder();
+        serializer.writeJson(new TestType(null, 7, false, null, null, null, null, null, null, null), json);
+
+        assertThat(json.toString(), is(equalTo("{\"intValue\":{\"N\":\"7\"},\"boolValue\":{\"BOOL\":false}}")));
+    }
+
+    @Test
+    public void testReadJson() {
+        TestType testType = serializer.readJson(JSON);
+
+        assertThat(testType.stringValue(), is(equalTo("Quote \" and \\ and \n")));
+        assertThat(testType.intValue(), is(equalTo(42)));
+        assertThat(testType.boolValue(), is(equalTo(true)));
+        assertArrayEquals(new byte[]{1, 2, 3}, testType.bytes());
+        assertThat(testType.tags(), is(equalTo(Set.of("tag"))));
+        assertThat(testType.numbers(), is(equalTo(List.of(1, 2))));
+        assertThat(testType.child(), is(equalTo(new Child("child"))));
+        assertThat(testType.children(), is(equalTo(List.of(new Child("a"), new Child("b")))));
+        assertThat(testType.color(), is(equalTo(Color.GREEN)));
+        assertThat(testType.createdAt(), is(equalTo(Instant.ofEpochMilli(1700000000000L))));
+    }
+
+    @Test
+    public void testReadJsonMatchesDeserialize() {
+        TestType fromJson = serializer.readJson(JSON);
+        TestType fromMap = serializer.deserialize(DynamoDBJson.readItem(JSON));
+
+        assertThat(fromJson.stringValue(), is(equalTo(fromMap.stringValue())));
+        assertThat(fromJson.children(), is(equalTo(fromMap.children())));
+        assertThat(fromJson.createdAt(), is(equalTo(fromMap.createdAt())));
+    }
+
+    @Test
+    public void testReadJsonIgnoresUnknownAttributes() {
+        TestType testType = serializer.readJson(" { \"unknown\" : {\"L\":[{\"N\":\"1\"},{\"M\":{}}]}, " +
+                "\"intValue\" : {\"N\":\"5\"} , \"other\":{\"NULL\":true} }");
+
+        assertThat(testType.intValue(), is(equalTo(5)));
+        assertThat(testType.stringValue(), is(nullValue()));
+    }
+
+    @Test
+    public void testReadJsonRejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> serializer.readJson("{\"intValue\":{\"N\":\"5\"}"));
+        assertThrows(IllegalArgumentException.class, () -> serializer.readJson("{} trailing"));
+    }
+
+    @Test
+    public void testReadJsonRequiresCommas() {
+        assertThrows(IllegalArgumentException.class,
+                () -> serializer.readJson("{\"stringValue\":{\"S\":\"a\"} \"intValue\":{\"N\":\"5\"}}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> serializer.readJson("{\"tags\":{\"SS\":[\"x\" \"y\"]}}"));
+        assertThrows(IllegalArgumentException.class, () -> serializer.readJson("{\"intValue\":{\"N\":\"5\"},}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> DynamoDBJson.readItem("{\"a\":{\"L\":[{\"N\":\"1\"},]}}"));
+    }
+
+    @Test
+    public void testReadJsonNullObjectArray() {
+        Serializer<ArrayType> arraySerializer = ca.fineapps.util.ddb.serializer.JsonCodecTest_ArrayTypeSerializer.create();
+
+        ArrayType arrayType = arraySerializer.readJson("{\"id\":{\"S\":\"a\"},\"kids\":{\"NULL\":true}}");
+
+        assertThat(arrayType.id(), is(equalTo("a")));
+        assertThat(arrayType.kids(), is(nullValue()));
+        assertThat(arraySerializer.readJson("{\"kids\":{\"L\":[{\"M\":{\"name\":{\"S\":\"b\"}}}]}}").kids()[0],
+                is(equalTo(new Child("b"))));
+    }
+
+    @Test
+    public void testStreamRoundTrip() throws IOException {
+        TestType testType = testObject();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.writeJson(testType, out);
+
+        TestType read = serializer.readJson(ByteBuffer.wrap(out.toByteArray()));
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8), is(equalTo(JSON)));
+        assertThat(read.stringValue(), is(equalTo(testType.stringValue())));
+        assertThat(read.children(), is(equalTo(testType.children())));
+    }
+
+    @Test
+    public void testPackedRoundTrip() throws IOException {
+        Serializer<PackedType> packedSerializer = ca.fineapps.util.ddb.serializer.JsonCodecTest_PackedTypeSerializer.create();
+        PackedType packedType = new PackedType(new int[]{1, 2, 3, 1000});
+        StringBuilder json = new StringBuilder();
+        packedSerializer.writeJson(packedType, json);
+
+        assertThat(DynamoDBJson.readItem(json), is(equalTo(packedSerializer.serialize(packedType))));
+        assertArrayEquals(packedType.values(), packedSerializer.readJson(json).values());
+    }
+
+    private static TestType testObject() {
+        return new TestType("Quote \" and \\ and \n", 42, true, new byte[]{1, 2, 3}, Set.of("tag"), List.of(1, 2),
+                new Child("child"), List.of(new Child("a"), new Child("b")), Color.GREEN,
+                Instant.ofEpochMilli(1700000000000L));
+    }
+
+    enum Color {
+        RED, GREEN
+    }
+
+    @Serialize
+    record TestType(String stringValue, int intValue, boolean boolValue, byte[] bytes, Set<String> tags,
+                    List<Integer> numbers, Child child, List<Child> children, Color color, Instant createdAt) {
+    }
+
+    record Child(String name) {
+    }
+
+    @Serialize
+    record PackedType(@Packed int[] values) {
+    }
+
+    @Serialize
+    record ArrayType(String id, Child[] kids) {
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class NumbersTest {
+    private final Serializer<TestType> serializer = NumbersTest_TestTypeSerializer.create();
+
+    @Test
+    public void testRoundTrip() {
+        TestType object = new TestType(7, -300, 1L << 40, 0.1, 2.5f, (short) 12, (byte) -3, 12.5, 0.333f,
+                List.of(1, 2000), Instant.ofEpochMilli(1_700_000_000_123L));
+
+        Map<String, AttributeValue> map = serializer.serialize(object);
+
+        assertThat(map, hasEntry("count", AttributeValue.fromN("7")));
+        assertThat(map, hasEntry("total", AttributeValue.fromN("1099511627776")));
+        assertThat(map, hasEntry("ratio", AttributeValue.fromN("0.1")));
+        assertThat(map, hasEntry("price", AttributeValue.fromN("12.5")));
+        assertThat(map, hasEntry("weight", AttributeValue.fromN("0.333")));
+        assertThat(serializer.deserialize(map), is(equalTo(object)));
+    }
+
+    @Test
+    public void testScaledFormat() {
+        assertThat(Numbers.toString(3.14159, 2), is(equalTo("3.14")));
+        assertThat(Numbers.toString(10.0, 2), is(equalTo("10")));
+        assertThat(Numbers.toString(-0.5, 2), is(equalTo("-0.5")));
+        assertThat(Numbers.toString(0.05, 2), is(equalTo("0.05")));
+        assertThat(Numbers.toString(-0.004, 2), is(equalTo("0")));
+        assertThat(Numbers.toString(1e20, 2), is(equalTo("1.0E20")));
+    }
+
+    @Test
+    public void testSmallIntegersAreCached() {
+        assertThat(Numbers.toString(512), is(sameInstance(Numbers.toString(512L))));
+        assertThat(Numbers.toString(-128), is(equalTo("-128")));
+        assertThat(Numbers.toString(Long.MIN_VALUE), is(equalTo(Long.toString(Long.MIN_VALUE))));
+        assertThat(Numbers.valueOf((short) 7), is(sameInstance(Numbers.toString(7))));
+    }
+
+    @Test
+    public void testParseMatchesJdk() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            String value = switch (i % 4) {
+                case 0 -> Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+                case 1 -> Long.toString(random.nextLong() >> random.nextInt(64));
+                case 2 -> String.format(Locale.ROOT, "%." + random.nextInt(12) + "f", (random.nextDouble() - 0.5) * 1e6);
+                default -> Float.toString(random.nextFloat() * random.nextInt(100_000));
+            };
+
+            assertThat(value, Numbers.parseDouble(value), is(equalTo(Double.parseDouble(value))));
+            assertThat(value, Numbers.parseFloat(value), is(equalTo(Float.parseFloat(value))));
+        }
+
+        for (String value : List.of("-0", "-0.0", ".5", "-.25", "5.", "1e3", "9007199254740993", "0.1")) {
+            assertThat(value, Numbers.parseDouble(value), is(equalTo(Double.parseDouble(value))));
+            assertThat(value, Numbers.parseFloat(value), is(equalTo(Float.parseFloat(value))));
+        }
+    }
+
+    @Serialize
+    record TestType(int count, Integer delta, long total, double ratio, Float factor, short level, Byte flags,
+                    @Scale(2) double price, @Scale(3) Float weight, List<Integer> sizes, Instant created) {
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PackedArraysTest {
+
+    private Serializer<PackedArrayTypes> serializer;
+    private Serializer<ProvidedPackedArrayTypes> providedSerializer;
+
+    @BeforeEach
+    public void setUp() {
+        serializer = ca.fineapps.util.ddb.serializer.PackedArraysTest_PackedArrayTypesSerializer.create();
+        providedSerializer = ca.fineapps.util.ddb.serializer.PackedArraysTest_ProvidedPackedArrayTypesSerializer.create();
+    }
+
+    @Test
+    public void testSerializePackedArrays() {
+        PackedArrayTypes original = new PackedArrayTypes(
+                new int[] {1, 1, -2},
+                new long[] {1L, 2L},
+                new double[] {1.5, 1.5},
+                new float[] {2.5f},
+                new short[] {3, 4},
+                new long[] {1_700_000_000_000L, 1_700_000_000_250L, 1_700_000_000_500L},
+                new int[] {10, 5, 10}
+        );
+
+        Map<String, AttributeValue> map = serializer.serialize(original);
+
+        assertThat(map.get("intArray").type(), is(equalTo(AttributeValue.Type.B)));
+        assertThat(map.get("intArray").b().asByteArray(), is(equalTo(new byte[] {1, 0, 0, 0, 1, 0, 0, 0, -2, -1, -1, -1})));
+        assertThat(map.get("longArray").b().asByteArray().length, is(equalTo(16)));
+        assertThat(map.get("doubleArray").b().asByteArray().length, is(equalTo(16)));
+        assertThat(map.get("floatArray").b().asByteArray().length, is(equalTo(4)));
+        assertThat(map.get("shortArray").b().asByteArray(), is(equalTo(new byte[] {3, 0, 4, 0})));
+
+        // The first timestamp takes six varint bytes and each 250ms delta takes two.
+        assertThat(map.get("timestamps").b().asByteArray().length, is(equalTo(10)));
+        assertThat(map.get("deltaInts").b().asByteArray(), is(equalTo(new byte[] {20, 9, 10})));
+    }
+
+    @Test
+    public void testRoundTripPackedArrays() {
+        PackedArrayTypes original = new PackedArrayTypes(
+                new int[] {1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE},
+                new long[] {Long.MIN_VALUE, 0L, Long.MAX_VALUE},
+                new double[] {7.89, 7.89, -0.12},
+                new float[] {1.23f, 4.56f},
+                new short[] {Short.MIN_VALUE, 8},
+                new long[] {Long.MAX_VALUE, Long.MIN_VALUE, 3L},
+                new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE, 0}
+        );
+
+        PackedArrayTypes obj = serializer.deserialize(serializer.serialize(original));
+
+        assertThat(obj.intArray(), is(equalTo(original.intArray())));
+        assertThat(obj.longArray(), is(equalTo(original.longArray())));
+        assertThat(obj.doubleArray(), is(equalTo(original.doubleArray())));
+        assertThat(obj.floatArray(), is(equalTo(original.floatArray())));
+        assertThat(obj.shortArray(), is(equalTo(original.shortArray())));
+        assertThat(obj.timestamps(), is(equalTo(original.timestamps())));
+        assertThat(obj.deltaInts(), is(equalTo(original.deltaInts())));
+    }
+
+    @Test
+    public void testRejectsTruncatedPackedArrays() {
+        assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpackInts(ByteBuffer.wrap(new byte[6])));
+        assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpackLongs(ByteBuffer.wrap(new byte[12])));
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedArrays.unpackDoubles(ByteBuffer.wrap(new byte[9])));
+        assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpackFloats(ByteBuffer.wrap(new byte[3])));
+        assertThrows(IllegalArgumentException.class, () -> PackedArrays.unpackShorts(ByteBuffer.wrap(new byte[1])));
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedArrays.unpackIntDeltas(ByteBuffer.wrap(new byte[] {2, (byte) 0x80})));
+        assertThrows(IllegalArgumentException.class,
+                () -> PackedArrays.unpackLongDeltas(ByteBuffer.wrap(new byte[] {(byte) 0xC0, (byte) 0x80})));
+
+        assertThat(PackedArrays.unpackInts(ByteBuffer.wrap(new byte[0])).length, is(equalTo(0)));
+        assertThat(PackedArrays.unpackIntDeltas(ByteBuffer.wrap(new byte[] {2, 4})), is(equalTo(new int[] {1, 3})));
+    }
+
+    @Test
+    public void testDeserializePackedArraysDefaults() {
+        PackedArrayTypes obj = serializer.deserialize(new HashMap<>());
+
+        assertThat(obj.intArray(), is(equalTo(null)));
+        assertThat(obj.timestamps(), is(equalTo(null)));
+    }
+
+    @Test
+    public void testPackedArraysFromProviderInterface() {
+        ProvidedPackedArrayTypes original = new ProvidedPackedArrayTypes(new double[] {1.0, 1.0}, new int[] {1, 1});
+
+        Map<String, AttributeValue> map = providedSerializer.serialize(original);
+
+        assertThat(map.get("values").type(), is(equalTo(AttributeValue.Type.B)));
+        assertThat(map.get("unpacked").type(), is(equalTo(AttributeValue.Type.NS)));
+        assertThat(providedSerializer.deserialize(map).values(), is(equalTo(new double[] {1.0, 1.0})));
+    }
+
+    @Serialize
+    record PackedArrayTypes(
+            @Packed int[] intArray,
+            @Packed long[] longArray,
+            @Packed double[] doubleArray,
+            @Packed float[] floatArray,
+            @Packed short[] shortArray,
+            @Packed(Packed.Encoding.DELTA_VARINT) long[] timestamps,
+            @Packed(Packed.Encoding.DELTA_VARINT) int[] deltaInts
+    ) {
+    }
+
+    @Serialize(ProvidedPackedArrayTypes.class)
+    interface ProvidedPackedArrayTypesProvider {
+        @Packed
+        double[] values();
+    }
+
+    record ProvidedPackedArrayTypes(double[] values, int[] unpacked) {
+    }
+}
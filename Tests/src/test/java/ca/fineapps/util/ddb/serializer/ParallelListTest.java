@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelListTest {
+    private final Serializer<TestType> serializer = ParallelListTest_TestTypeSerializer.create();
+
+    @Test
+    public void testLargeListsKeepOrder() {
+        TestType object = object(5_000);
+
+        Map<String, AttributeValue> map = serializer.serialize(object);
+        List<AttributeValue> points = map.get("points").l();
+
+        assertThat(points.size(), is(equalTo(5_000)));
+        for (int i = 0; i < points.size(); i++) {
+            assertThat(points.get(i).m().get("x"), is(equalTo(AttributeValue.fromN(String.valueOf(i)))));
+        }
+
+        TestType deserialized = serializer.deserialize(map);
+        assertThat(deserialized.points(), is(equalTo(object.points())));
+        assertArrayEquals(object.samples(), deserialized.samples());
+    }
+
+    @Test
+    public void testSmallListsBelowThreshold() {
+        TestType object = object(10);
+
+        TestType deserialized = serializer.deserialize(serializer.serialize(object));
+
+        assertThat(deserialized.points(), is(equalTo(object.points())));
+        assertArrayEquals(object.samples(), deserialized.samples());
+    }
+
+    @Test
+    public void testFailurePropagates() {
+        Map<String, AttributeValue> map = serializer.serialize(object(3_000));
+        List<AttributeValue> points = new ArrayList<>(map.get("points").l());
+        points.set(2_345, AttributeValue.fromM(Map.of("x", AttributeValue.fromN("not-a-number"))));
+
+        assertThrows(NumberFormatException.class, () -> serializer.deserialize(Map.of("points",
+                AttributeValue.fromL(points))));
+    }
+
+    private static TestType object(int count) {
+        List<Point> points = IntStream.range(0, count).mapToObj(i -> new Point(i, -i)).toList();
+        return new TestType(points, points.toArray(new Point[0]));
+    }
+
+    @Serialize
+    record TestType(@Parallel List<Point> points, @Parallel(threshold = 512) Point[] samples) {
+    }
+
+    record Point(int x, int y) {
+    }
+}
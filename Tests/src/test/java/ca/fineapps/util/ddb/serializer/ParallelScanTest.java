@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelScanTest {
+    private static final int ITEMS = 1_000;
+    private static final int SEGMENTS = 8;
+
+    private final Serializer<TestType> serializer = ParallelScanTest_TestTypeSerializer.create();
+    private final ScanRequest request = ScanRequest.builder().tableName("table").build();
+
+    @Test
+    public void testForEach() {
+        FakeClient client = new FakeClient(-1);
+        Set<TestType> scanned = ConcurrentHashMap.newKeySet();
+
+        ParallelScan.builder(client, request, serializer).totalSegments(SEGMENTS).build().forEach(scanned::add);
+
+        assertThat(scanned, is(equalTo(allObjects())));
+        assertThat(client.segments, is(equalTo(IntStream.range(0, SEGMENTS).boxed().collect(Collectors.toSet()))));
+    }
+
+    @Test
+    public void testStream() {
+        FakeClient client = new FakeClient(-1);
+
+        try (Stream<TestType> stream = ParallelScan.builder(client, request, serializer)
+                .totalSegments(SEGMENTS)
+                .build()
+                .stream()) {
+            List<TestType> scanned = stream.toList();
+
+            assertThat(scanned.size(), is(equalTo(ITEMS)));
+            assertThat(Set.copyOf(scanned), is(equalTo(allObjects())));
+        }
+    }
+
+    @Test
+    public void testStreamClosedEarly() {
+        FakeClient client = new FakeClient(-1);
+
+        try (Stream<TestType> stream = ParallelScan.builder(client, request, serializer)
+                .totalSegments(SEGMENTS)
+                .build()
+                .stream()) {
+            assertThat(stream.limit(5).count(), is(equalTo(5L)));
+        }
+    }
+
+    @Test
+    public void testStreamScansAtMostTwoPagesAhead() throws InterruptedException {
+        FakeClient client = new FakeClient(-1);
+        client.otherSegments = new CountDownLatch(1);
+
+        try (Stream<TestType> stream = ParallelScan.builder(client, request, serializer)
+                .totalSegments(SEGMENTS)
+                .build()
+                .stream()) {
+            Iterator<TestType> iterator = stream.iterator();
+            assertThat(iterator.next().id() % SEGMENTS, is(equalTo(0)));
+            // Only segment 0 can make progress; give it time to scan as far ahead as it is allowed to.
+            Thread.sleep(200);
+
+            // The page being consumed, one queued page and one page waiting to be queued.
+            assertThat(client.requestsOf(0), is(equalTo(3)));
+
+            client.otherSegments.countDown();
+            int count = 1;
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+            assertThat(count, is(equalTo(ITEMS)));
+        }
+    }
+
+    @Test
+    public void testResumeFromCheckpoints() {
+        MapCheckpoints checkpoints = new MapCheckpoints();
+        Set<TestType> scanned = ConcurrentHashMap.newKeySet();
+
+        FakeClient failing = new FakeClient(3);
+        ParallelScan<TestType> first = ParallelScan.builder(failing, request, serializer)
+                .totalSegments(SEGMENTS)
+                .checkpoints(checkpoints)
+                .build();
+        assertThrows(IllegalStateException.class, () -> first.forEach(scanned::add));
+        int savedPages = checkpoints.saves.get();
+
+        FakeClient client = new FakeClient(-1);
+        ParallelScan.builder(client, request, serializer)
+                .totalSegments(SEGMENTS)
+                .checkpoints(checkpoints)
+                .build()
+                .forEach(scanned::add);
+
+        assertThat(scanned, is(equalTo(allObjects())));
+        // Only the pages without a saved checkpoint are scanned again.
+        int totalPages = SEGMENTS * ((ITEMS / SEGMENTS + FakeClient.PAGE_SIZE - 1) / FakeClient.PAGE_SIZE);
+        assertThat(client.requests.get(), is(equalTo(totalPages - savedPages)));
+        assertTrue(checkpoints.keys.values().stream().allMatch(Map::isEmpty));
+    }
+
+    private static Set<TestType> allObjects() {
+        return IntStream.range(0, ITEMS).mapToObj(ParallelScanTest::object).collect(Collectors.toSet());
+    }
+
+    private static TestType object(int i) {
+        return new TestType(i, "name-" + i);
+    }
+
+    @Serialize
+    record TestType(int id, String name) {
+    }
+
+    private static class MapCheckpoints implements ParallelScan.Checkpoints {
+        private final Map<Integer, Map<String, AttributeValue>> keys = new ConcurrentHashMap<>();
+        private final AtomicInteger saves = new AtomicInteger();
+
+        @Override
+        public Map<String, AttributeValue> load(int segment) {
+            return keys.get(segment);
+        }
+
+        @Override
+        public void save(int segment, Map<String, AttributeValue> lastEvaluatedKey) {
+            keys.put(segment, lastEvaluatedKey);
+            saves.incrementAndGet();
+        }
+    }
+
+    // Holds the items with id % total segments == segment in each segment, returned 10 per page. The failing
+    // segment throws on its given page, and segments other than 0 wait for the latch if one is set.
+    private class FakeClient implements DynamoDbClient {
+        private static final int PAGE_SIZE = 10;
+
+        private final int failingPage;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Set<Integer> segments = ConcurrentHashMap.newKeySet();
+        private final Map<Integer, AtomicInteger> segmentRequests = new ConcurrentHashMap<>();
+        private volatile CountDownLatch otherSegments;
+
+        FakeClient(int failingPage) {
+            this.failingPage = failingPage;
+        }
+
+        @Override
+        public ScanResponse scan(ScanRequest request) {
+            requests.incrementAndGet();
+            int segment = request.segment();
+            segments.add(segment);
+            segmentRequests.computeIfAbsent(segment, ignored -> new AtomicInteger()).incrementAndGet();
+            if (segment != 0 && otherSegments != null) {
+                try {
+                    otherSegments.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+            }
+
+            int start = request.hasExclusiveStartKey() ?
+                    Integer.parseInt(request.exclusiveStartKey().get("id").n()) + request.totalSegments() : segment;
+            if (segment == 2 && start / request.totalSegments() / PAGE_SIZE == failingPage) {
+                throw new IllegalStateException("Segment " + segment + " failed");
+            }
+
+            List<Integer> ids = IntStream.iterate(start, id -> id < ITEMS, id -> id + request.totalSegments())
+                    .limit(PAGE_SIZE)
+                    .boxed()
+                    .toList();
+            ScanResponse.Builder response = ScanResponse.builder()
+                    .items(ids.stream().map(id -> serializer.serialize(object(id))).toList());
+            int last = ids.get(ids.size() - 1);
+            if (last + request.totalSegments() < ITEMS) {
+                response.lastEvaluatedKey(Map.of("id", AttributeValue.fromN(String.valueOf(last))));
+            }
+            return response.build();
+        }
+
+        int requestsOf(int segment) {
+            return segmentRequests.getOrDefault(segment, new AtomicInteger()).get();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrefetchingQueryTest {
+    private static final int ITEMS = 95;
+    private static final int PAGE_SIZE = 10;
+
+    private final Serializer<TestType> serializer = PrefetchingQueryTest_TestTypeSerializer.create();
+    private final QueryRequest request = QueryRequest.builder().tableName("table").build();
+
+    @Test
+    public void testReadsAllPagesInOrder() {
+        FakeClient client = new FakeClient(-1);
+
+        try (Stream<TestType> stream = PrefetchingQuery.builder(client, request, serializer).build().stream()) {
+            assertThat(stream.toList(), is(equalTo(objects(ITEMS))));
+        }
+        assertThat(client.requests.get(), is(equalTo(10)));
+    }
+
+    @Test
+    public void testPrefetchIsBounded() throws InterruptedException {
+        FakeClient client = new FakeClient(-1);
+
+        try (PrefetchingQuery.Results<TestType> results = PrefetchingQuery.builder(client, request, serializer)
+                .prefetch(1)
+                .build()
+                .iterator()) {
+            assertThat(results.next(), is(equalTo(new TestType(0, "name-0"))));
+
+            // The page being iterated, one waiting page and one page waiting for room.
+            assertTrue(client.sent.tryAcquire(3, 5, TimeUnit.SECONDS));
+            assertThat(client.sent.tryAcquire(100, TimeUnit.MILLISECONDS), is(false));
+
+            List<TestType> rest = new ArrayList<>();
+            results.forEachRemaining(rest::add);
+            assertThat(rest, is(equalTo(objects(ITEMS).subList(1, ITEMS))));
+        }
+    }
+
+    @Test
+    public void testCloseStopsRequests() throws InterruptedException {
+        FakeClient client = new FakeClient(-1);
+
+        try (Stream<TestType> stream = PrefetchingQuery.builder(client, request, serializer).build().stream()) {
+            assertThat(stream.limit(5).toList(), is(equalTo(objects(5))));
+        }
+
+        Thread.sleep(50);
+        assertTrue(client.requests.get() <= 4);
+    }
+
+    @Test
+    public void testFailurePropagates() {
+        FakeClient client = new FakeClient(3);
+        PrefetchingQuery.Results<TestType> results = PrefetchingQuery.builder(client, request, serializer)
+                .build()
+                .iterator();
+
+        for (int i = 0; i < 3 * PAGE_SIZE; i++) {
+            assertThat(results.next(), is(equalTo(new TestType(i, "name-" + i))));
+        }
+        assertThrows(IllegalStateException.class, results::hasNext);
+    }
+
+    private static List<TestType> objects(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new TestType(i, "name-" + i)).toList();
+    }
+
+    @Serialize
+    record TestType(int id, String name) {
+    }
+
+    // Returns the items 10 per page, keyed by id, and fails on the given page.
+    private class FakeClient implements DynamoDbClient {
+        private final int failingPage;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Semaphore sent = new Semaphore(0);
+
+        FakeClient(int failingPage) {
+            this.failingPage = failingPage;
+        }
+
+        @Override
+        public QueryResponse query(QueryRequest request) {
+            int page = requests.getAndIncrement();
+            sent.release();
+            if (page == failingPage) {
+                throw new IllegalStateException("Page " + page + " failed");
+            }
+
+            int start = request.hasExclusiveStartKey() ?
+                    Integer.parseInt(request.exclusiveStartKey().get("id").n()) + 1 : 0;
+            int end = Math.min(ITEMS, start + PAGE_SIZE);
+            QueryResponse.Builder response = QueryResponse.builder()
+                    .items(IntStream.range(start, end)
+                            .mapToObj(id -> serializer.serialize(new TestType(id, "name-" + id)))
+                            .toList());
+            if (end < ITEMS) {
+                response.lastEvaluatedKey(Map.of("id", AttributeValue.fromN(String.valueOf(end - 1))));
+            }
+            return response.build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -147,6 +147,18 @@ public class PrimitiveArraysTest {
         assertThat(obj.booleanArray(), is(equalTo(null)));
     }
 
+    @Test
+    public void testRoundTripLargePrimitiveArray() {
+        int[] intArray = new int[10_000];
+        for (int i = 0; i < intArray.length; i++) {
+            intArray[i] = i - 5_000;
+        }
+        PrimitiveArrayTypes original = new PrimitiveArrayTypes(intArray, null, null, null, null, null, null, null);
+
+        PrimitiveArrayTypes obj = serializer.deserialize(serializer.serialize(original));
+
+        assertThat(obj.intArray(), is(equalTo(intArray)));
+    }
 
     @Serialize
     record PrimitiveArrayTypes(
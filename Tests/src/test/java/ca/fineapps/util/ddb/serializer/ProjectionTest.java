@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class ProjectionTest {
+    private static final Map<String, AttributeValue> ITEM =
+            ca.fineapps.util.ddb.serializer.ProjectionTest_TestTypeSerializer.create().serialize(
+                    new TestType("id-1", "Test-Name", 42, List.of("a", "b"), new Child("child")));
+
+    @Test
+    public void testProjectionExpression() {
+        assertThat(ProjectionTest_SummaryProjection.PROJECTION_EXPRESSION, is(equalTo("#id, #name, #count")));
+        assertThat(ProjectionTest_SummaryProjection.EXPRESSION_ATTRIBUTE_NAMES, aMapWithSize(3));
+        assertThat(ProjectionTest_SummaryProjection.EXPRESSION_ATTRIBUTE_NAMES, hasEntry("#id", "id"));
+        assertThat(ProjectionTest_SummaryProjection.EXPRESSION_ATTRIBUTE_NAMES, hasEntry("#name", "name"));
+        assertThat(ProjectionTest_SummaryProjection.EXPRESSION_ATTRIBUTE_NAMES, hasEntry("#count", "count"));
+    }
+
+    @Test
+    public void testDeserialize() {
+        Summary summary = ProjectionTest_SummaryProjection.deserialize(ITEM);
+
+        assertThat(summary.id(), is(equalTo("id-1")));
+        assertThat(summary.name(), is(equalTo("Test-Name")));
+        assertThat(summary.count(), is(equalTo(42)));
+    }
+
+    @Test
+    public void testDeserializeMissingAttributes() {
+        Summary summary = ProjectionTest_SummaryProjection.deserialize(Map.of(
+                "id", AttributeValue.builder().s("id-1").build()
+        ));
+
+        assertThat(summary.id(), is(equalTo("id-1")));
+        assertThat(summary.name(), is(nullValue()));
+        assertThat(summary.count(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testGetterProjection() {
+        ChildView view = ProjectionTest_ChildViewProjection.deserialize(ITEM);
+
+        assertThat(ProjectionTest_ChildViewProjection.PROJECTION_EXPRESSION, is(equalTo("#child, #tags")));
+        assertThat(view.getChild(), is(equalTo(new Child("child"))));
+        assertThat(view.getTags(), is(equalTo(List.of("a", "b"))));
+    }
+
+    @Serialize
+    record TestType(String id, String name, int count, List<String> tags, Child child) {
+    }
+
+    record Child(String value) {
+    }
+
+    @Projection(TestType.class)
+    interface Summary {
+        String id();
+
+        String name();
+
+        int count();
+    }
+
+    @Projection(TestType.class)
+    interface ChildView {
+        Child getChild();
+
+        List<String> getTags();
+
+        default boolean hasChild() {
+            return getChild() != null;
+        }
+    }
+}
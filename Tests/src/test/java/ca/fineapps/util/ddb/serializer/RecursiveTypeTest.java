@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class RecursiveTypeTest {
+
+    private Serializer<TreeNode> serializer;
+
+    @BeforeEach
+    public void setUp() {
+        serializer = ca.fineapps.util.ddb.serializer.RecursiveTypeTest_TreeNodeSerializer.create();
+    }
+
+    @Test
+    public void testCreateReturnsSharedInstance() {
+        assertThat(ca.fineapps.util.ddb.serializer.RecursiveTypeTest_TreeNodeSerializer.create(),
+                is(sameInstance(serializer)));
+    }
+
+    @Test
+    public void testSerializeSelfReferentialType() {
+        TreeNode tree = new TreeNode("root", List.of(
+                new TreeNode("left", List.of(), null),
+                new TreeNode("right", List.of(new TreeNode("leaf", null, null)), null)
+        ), null);
+
+        Map<String, AttributeValue> map = serializer.serialize(tree);
+
+        assertThat(map.get("name").s(), is(equalTo("root")));
+        List<AttributeValue> children = map.get("children").l();
+        assertThat(children.get(1).m().get("name").s(), is(equalTo("right")));
+        assertThat(children.get(1).m().get("children").l().getFirst().m().get("name").s(), is(equalTo("leaf")));
+    }
+
+    @Test
+    public void testRoundTripCyclicTypes() {
+        TreeNode tree = new TreeNode("root", List.of(new TreeNode("child", List.of(), null)),
+                new Annotation("note", new TreeNode("annotated", null, null)));
+
+        TreeNode deserialized = serializer.deserialize(serializer.serialize(tree));
+
+        assertThat(deserialized, is(equalTo(tree)));
+        assertThat(deserialized.annotation().target().annotation(), is(nullValue()));
+    }
+
+    @Serialize
+    record TreeNode(String name, List<TreeNode> children, Annotation annotation) {
+    }
+
+    record Annotation(String text, TreeNode target) {
+    }
+}
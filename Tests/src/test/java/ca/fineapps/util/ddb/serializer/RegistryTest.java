@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RegistryTest {
+
+    @Test
+    public void testForClassReturnsSharedInstance() {
+        Serializer<RegisteredType> serializer = Serializers.forClass(RegisteredType.class);
+
+        assertThat(serializer, is(sameInstance(ca.fineapps.util.ddb.serializer.RegistryTest_RegisteredTypeSerializer.create())));
+    }
+
+    @Test
+    public void testForClassCoversNestedAndProvidedTypes() {
+        assertThat(Serializers.forClass(NestedType.class),
+                is(sameInstance(ca.fineapps.util.ddb.serializer.RegistryTest_NestedTypeSerializer.create())));
+        assertThat(Serializers.forClass(AnnotatedInterfaceTest.TestType.class),
+                is(sameInstance(ca.fineapps.util.ddb.serializer.AnnotatedInterfaceTest_TestTypeSerializer.create())));
+    }
+
+    @Test
+    public void testForClassSerializes() {
+        Map<String, AttributeValue> map = Serializers.forClass(RegisteredType.class)
+                .serialize(new RegisteredType("id", new NestedType(3)));
+
+        assertThat(map.get("id").s(), is(equalTo("id")));
+        assertThat(map.get("nested").m().get("count").n(), is(equalTo("3")));
+    }
+
+    @Test
+    public void testForClassRejectsUnknownType() {
+        assertThrows(IllegalArgumentException.class, () -> Serializers.forClass(String.class));
+    }
+
+    @Serialize
+    record RegisteredType(String id, NestedType nested) {
+    }
+
+    record NestedType(int count) {
+    }
+}
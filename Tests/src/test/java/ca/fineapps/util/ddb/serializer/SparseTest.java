@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class SparseTest {
+    private final Serializer<TestType> serializer = SparseTest_TestTypeSerializer.create();
+    private final Serializer<Settings> settingsSerializer = SparseTest_SettingsSerializer.create();
+
+    @Test
+    public void testDefaultsAreOmitted() {
+        TestType object = new TestType("id-1", 0, 0L, 0.0, false, '\0', "", List.of(), Set.of(), Set.of(),
+                new int[0], new String[0], 0, null);
+
+        Map<String, AttributeValue> map = serializer.serialize(object);
+
+        assertThat(map, aMapWithSize(2));
+        assertThat(map, hasEntry("id", AttributeValue.fromS("id-1")));
+        assertThat(map, hasEntry("version", AttributeValue.fromN("0")));
+        assertThat(serializer.deserialize(map), is(equalTo(object)));
+        assertThat(serializer.estimateSize(object), is(equalTo(ItemSizes.itemSize(map))));
+    }
+
+    @Test
+    public void testValuesRoundTrip() throws IOException {
+        TestType object = new TestType("id-1", -3, 1L << 40, 0.5, true, 'x', "note", List.of("a", ""),
+                Set.of("b"), Set.of(7), new int[]{0}, new String[]{""}, 2, 0);
+
+        Map<String, AttributeValue> map = serializer.serialize(object);
+        StringBuilder json = new StringBuilder();
+        serializer.writeJson(object, json);
+
+        assertThat(map, aMapWithSize(14));
+        assertThat(serializer.deserialize(map), is(equalTo(object)));
+        assertThat(DynamoDBJson.readItem(json), is(equalTo(map)));
+        assertThat(serializer.readJson(json), is(equalTo(object)));
+        assertThat(serializer.estimateSize(object), is(equalTo(ItemSizes.itemSize(map))));
+    }
+
+    @Test
+    public void testNullsReadBackAsEmpty() {
+        TestType object = new TestType("id-1", 0, 0L, 0.0, false, '\0', null, null, null, null, null, null, 0, null);
+
+        TestType deserialized = serializer.deserialize(serializer.serialize(object));
+
+        assertThat(deserialized.note(), is(equalTo("")));
+        assertThat(deserialized.lines(), is(equalTo(List.of())));
+        assertThat(deserialized.tags(), is(equalTo(Set.of())));
+        assertThat(deserialized.samples().length, is(equalTo(0)));
+        assertThat(deserialized.names().length, is(equalTo(0)));
+    }
+
+    @Test
+    public void testViewReadsDefaults() {
+        SparseTest_TestTypeView view = new SparseTest_TestTypeView(Map.of("id", AttributeValue.fromS("id-1")));
+
+        assertThat(view.note(), is(equalTo("")));
+        assertThat(view.codes(), is(equalTo(Set.of())));
+        assertThat(view.count(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testDiffRemovesDefaults() {
+        TestType before = new TestType("id-1", 5, 0L, 0.0, true, '\0', "note", List.of(), Set.of("a"), Set.of(),
+                new int[0], new String[0], 1, null);
+        TestType after = new TestType("id-1", 0, 0L, 0.0, true, '\0', "", List.of(), Set.of(), Set.of(),
+                new int[0], new String[0], 1, null);
+
+        ItemUpdate update = serializer.diff(before, after);
+
+        assertThat(update.updateExpression(), is(equalTo("REMOVE #n0, #n1, #n2")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "count"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "note"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n2", "tags"));
+    }
+
+    @Test
+    public void testSettersRestoreDefaults() {
+        Settings settings = new Settings();
+        settings.setRetries(0);
+        settings.setHosts(new ArrayList<>());
+
+        Map<String, AttributeValue> map = settingsSerializer.serialize(settings);
+        Settings deserialized = settingsSerializer.deserialize(map);
+
+        assertThat(map, aMapWithSize(1));
+        assertThat(map, hasEntry("name", AttributeValue.fromS("")));
+        assertThat(deserialized.getRetries(), is(equalTo(0)));
+        assertThat(deserialized.getHosts(), is(equalTo(List.of())));
+        assertThat(deserialized.getName(), is(equalTo("")));
+    }
+
+    @Sparse
+    @Serialize(view = true)
+    record TestType(String id, int count, long total, double ratio, boolean active, char grade, String note,
+                    List<String> lines, Set<String> tags, Set<Integer> codes, int[] samples, String[] names,
+                    @Sparse(false) int version, Integer boxed) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TestType that && id.equals(that.id) && count == that.count &&
+                    total == that.total && ratio == that.ratio && active == that.active && grade == that.grade &&
+                    Objects.equals(note, that.note) && Objects.equals(lines, that.lines) &&
+                    Objects.equals(tags, that.tags) && Objects.equals(codes, that.codes) &&
+                    Arrays.equals(samples, that.samples) && Arrays.equals(names, that.names) &&
+                    version == that.version && Objects.equals(boxed, that.boxed);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+    @Serialize
+    static class Settings {
+        @Sparse
+        private int retries = 3;
+        @Sparse
+        private List<String> hosts = new ArrayList<>(List.of("localhost"));
+        private String name = "";
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public List<String> getHosts() {
+            return hosts;
+        }
+
+        public void setHosts(List<String> hosts) {
+            this.hosts = hosts;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
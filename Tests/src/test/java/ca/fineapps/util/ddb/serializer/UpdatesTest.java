@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.collection.IsMapWithSize.aMapWithSize;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class UpdatesTest {
+
+    @Test
+    public void testIncrement() {
+        ItemUpdate update = new UpdatesTest_TestTypeUpdates()
+                .incrementCount(5)
+                .incrementTotal(-2L)
+                .build();
+
+        assertThat(update.updateExpression(), is(equalTo("ADD #n0 :v0, #n1 :v1")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "count"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "total"));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v0", AttributeValue.fromN("5")));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v1", AttributeValue.fromN("-2")));
+    }
+
+    @Test
+    public void testIncrementAtomicCounters() {
+        ItemUpdate update = new UpdatesTest_CountersUpdates()
+                .incrementHits(3)
+                .incrementBytes(1L << 40)
+                .build();
+
+        assertThat(update.updateExpression(), is(equalTo("ADD #n0 :v0, #n1 :v1")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "hits"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "bytes"));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v0", AttributeValue.fromN("3")));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v1", AttributeValue.fromN("1099511627776")));
+    }
+
+    @Test
+    public void testSetMembership() {
+        ItemUpdate update = new UpdatesTest_TestTypeUpdates()
+                .addToTags(Set.of("a"))
+                .removeFromScores(new int[]{1, 2})
+                .build();
+
+        assertThat(update.updateExpression(), is(equalTo("ADD #n0 :v0 DELETE #n1 :v1")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "tags"));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n1", "scores"));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v0", AttributeValue.fromSs(List.of("a"))));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v1", AttributeValue.fromNs(List.of("1", "2"))));
+    }
+
+    @Test
+    public void testEmptySetIsIgnored() {
+        ItemUpdate update = new UpdatesTest_TestTypeUpdates()
+                .addToTags(Set.of())
+                .removeFromScores(new int[0])
+                .build();
+
+        assertThat(update.isEmpty(), is(true));
+        assertThat(update.expressionAttributeNames(), aMapWithSize(0));
+    }
+
+    @Test
+    public void testAppend() {
+        ItemUpdate update = new UpdatesTest_TestTypeUpdates()
+                .appendToEvents(List.of(new Event("created")))
+                .incrementCount(1)
+                .build();
+
+        assertThat(update.updateExpression(),
+                is(equalTo("SET #n0 = list_append(if_not_exists(#n0, :v0), :v1) ADD #n1 :v2")));
+        assertThat(update.expressionAttributeNames(), hasEntry("#n0", "events"));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v0", AttributeValue.fromL(List.of())));
+        assertThat(update.expressionAttributeValues(), hasEntry(":v1", AttributeValue.fromL(List.of(
+                AttributeValue.fromM(Map.of("name", AttributeValue.fromS("created")))))));
+    }
+
+    @Serialize
+    record TestType(String id, int count, Long total, Set<String> tags, int[] scores, List<Event> events) {
+    }
+
+    record Event(String name) {
+    }
+
+    @Serialize
+    record Counters(String id, AtomicInteger hits, AtomicLong bytes) {
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ca.fineapps.util.ddb.serializer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ViewTest {
+    private Serializer<TestType> serializer;
+
+    @BeforeEach
+    public void setUp() {
+        serializer = ca.fineapps.util.ddb.serializer.ViewTest_TestTypeSerializer.create();
+    }
+
+    @Test
+    public void testView() {
+        TestType testType = new TestType("id-1", 3, List.of("a", "b"), new Child("child", new GrandChild(7)));
+        ViewTest_TestTypeView view = new ViewTest_TestTypeView(serializer.serialize(testType));
+
+        assertThat(view.id(), is(equalTo("id-1")));
+        assertThat(view.count(), is(equalTo(3)));
+        assertThat(view.tags(), is(equalTo(List.of("a", "b"))));
+        assertThat(view.child().name(), is(equalTo("child")));
+        assertThat(view.child().grandChild().value(), is(equalTo(7)));
+        assertThat(view.toObject(), is(equalTo(testType)));
+    }
+
+    @Test
+    public void testViewMemoizesNestedViews() {
+        TestType testType = new TestType("id-1", 3, null, new Child("child", null));
+        ViewTest_TestTypeView view = new ViewTest_TestTypeView(serializer.serialize(testType));
+
+        assertThat(view.child(), is(sameInstance(view.child())));
+        assertThat(view.child().grandChild(), is(nullValue()));
+    }
+
+    @Test
+    public void testViewDecodesOnAccess() {
+        ViewTest_TestTypeView view = new ViewTest_TestTypeView(Map.of(
+                "id", AttributeValue.builder().s("id-1").build(),
+                "count", AttributeValue.builder().n("not-a-number").build()
+        ));
+
+        assertThat(view.id(), is(equalTo("id-1")));
+        assertThat(view.tags(), is(nullValue()));
+        assertThrows(NumberFormatException.class, view::count);
+    }
+
+    @Test
+    public void testFieldsNamedLikeViewMembers() {
+        Entry entry = new Entry("map", 2, true, "value");
+        ViewTest_EntryView view = new ViewTest_EntryView(ViewTest_EntrySerializer.create().serialize(entry));
+
+        assertThat(view.map(), is(equalTo("map")));
+        assertThat(view.x(), is(equalTo(2)));
+        assertThat(view.xDecoded(), is(equalTo(true)));
+        assertThat(view.value(), is(equalTo("value")));
+        assertThat(view.toObject(), is(equalTo(entry)));
+    }
+
+    @Serialize(view = true)
+    record TestType(String id, int count, List<String> tags, Child child) {
+    }
+
+    record Child(String name, GrandChild grandChild) {
+    }
+
+    record GrandChild(int value) {
+    }
+
+    @Serialize(view = true)
+    record Entry(String map, int x, boolean xDecoded, String value) {
+    }
+}
@@ -12,18 +12,13 @@
  * limitations under the License.
  */
 
-package ca.fineapps.util.ddb.serializer;
 
-import javax.annotation.processing.Generated;
-import java.util.function.IntFunction;
-import java.util.stream.Collector;
+package ca.fineapps.util.ddb.serializer.fixtures;
 
-@Generated(value = "ca.fineapps.util.ddb.serializer.DynamoDBSerializerProcessor")
-public class Collectors {
-    private Collectors() {
-    }
+import ca.fineapps.util.ddb.serializer.EnumCode;
 
-    public static <T, R> Collector<T, ?, R> toArray(IntFunction<R> arrayFactory) {
-        return new ArrayCollector<>(arrayFactory);
-    }
+public enum Priority {
+    @EnumCode(1) LOW,
+    @EnumCode(5) NORMAL,
+    @EnumCode(9) HIGH
 }
@@ -0,0 +1,27 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ca.fineapps.util.ddb.serializer.fixtures;
+
+import ca.fineapps.util.ddb.serializer.AttributeName;
+import ca.fineapps.util.ddb.serializer.Compressed;
+import ca.fineapps.util.ddb.serializer.Packed;
+import ca.fineapps.util.ddb.serializer.Scale;
+import ca.fineapps.util.ddb.serializer.Sparse;
+
+@Sparse
+public record Shipment(@AttributeName("dst") String destination, @Packed int[] weights, int count,
+                       @Scale(2) double ratio, @Compressed(threshold = 0) String notes) {
+}